@@ -16,6 +16,7 @@ plugins {
     `java-library`
     `maven-publish`
     id("cosmicloom")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 if (group == path.substring(1).replace(':', '.')) {
@@ -37,6 +38,14 @@ java {
     toolchain.languageVersion = JavaLanguageVersion.of(Constants.VERSION_JAVA)
 }
 
+sourceSets {
+    // The Vector API kernel is the only code needing the incubator module, so it
+    // is compiled on its own and loaded reflectively
+    create("vector") {
+        compileClasspath += main.get().output + main.get().compileClasspath
+    }
+}
+
 dependencies {
     // Cosmic Reach
     cosmicReach(getCosmicReach("alpha", Constants.VERSION_COSMIC_REACH))
@@ -50,6 +59,22 @@ dependencies {
         name = "modmenu",
         version = "1.0.8",
     )
+
+    // Tests
+    testImplementation(platform("org.junit:junit-bom:5.10.2"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    testRuntimeOnly(sourceSets["vector"].output)
+
+    // Benchmarks share the reference kernel of the tests
+    "jmhImplementation"(sourceSets.test.get().output)
+    "jmhRuntimeOnly"(sourceSets["vector"].output)
+}
+
+jmh {
+    jmhVersion = "1.37"
+    jvmArgsAppend.addAll("--add-modules", "jdk.incubator.vector")
+    profilers.add("gc")
 }
 
 tasks {
@@ -77,10 +102,29 @@ tasks {
         }
     }
 
+    test {
+        useJUnitPlatform()
+
+        // Covers the Vector API kernel too
+        jvmArgs("--add-modules", "jdk.incubator.vector")
+    }
+
     withType<JavaCompile> {
         options.encoding = "UTF-8"
     }
 
+    named<JavaCompile>(sourceSets["vector"].compileJavaTaskName) {
+        options.compilerArgs.addAll(listOf("--add-modules", "jdk.incubator.vector"))
+    }
+
+    jar {
+        from(sourceSets["vector"].output)
+    }
+
+    named<Jar>("sourcesJar") {
+        from(sourceSets["vector"].allSource)
+    }
+
     javadoc {
         options {
             this as StandardJavadocDocletOptions
@@ -0,0 +1,159 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.LIGHT_LEVEL_COUNT;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.NEIGHBOR_COUNT;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the corner light kernels on synthetic neighborhoods, one operation
+ * being both light calculations of one block.
+ *
+ * @see CornerLightThroughputBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CornerLightBenchmark {
+    /**
+     * The number of blocks per invocation.
+     */
+    static final int BLOCKS = 4096;
+
+    /**
+     * The kind of neighborhoods.
+     */
+    @Param
+    public LightNeighborhoods.Scenario scenario;
+
+    private LightNeighborhoods neighborhoods;
+
+    private final short[] blockLightLevels = new short[LIGHT_LEVEL_COUNT];
+
+    private final int[] skyLightLevels = new int[LIGHT_LEVEL_COUNT];
+
+    private final int[] neighborLightLevels = new int[NEIGHBOR_COUNT];
+
+    @Setup
+    public void setup() {
+        this.neighborhoods = LightNeighborhoods.generate(this.scenario, BLOCKS, 0L);
+    }
+
+    /**
+     * The Vector API kernel, kept apart so that only {@link #vectorized} fails
+     * when {@code jdk.incubator.vector} is not present.
+     */
+    @State(Scope.Thread)
+    public static class VectorizedKernel {
+        LightKernel kernel;
+
+        @Setup
+        public void setup() {
+            if (!CosmicLightBleedFix.VECTOR_API_PRESENT) {
+                throw new IllegalStateException("Skipped: jdk.incubator.vector is not present");
+            }
+            this.kernel = CosmicLightBleedFix.createVectorizedKernel();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCKS)
+    public int generic() {
+        var result = 0;
+        for (var block = 0; block < BLOCKS; block++) {
+            final var opaqueBitMask = prepareBlockLight(block);
+            GenericKernels.updateBlockLightLevels(this.blockLightLevels, this.neighborLightLevels, opaqueBitMask);
+            prepareSkyLight(block);
+            GenericKernels.updateSkyLightLevels(this.skyLightLevels, this.neighborLightLevels, opaqueBitMask);
+            result += this.blockLightLevels[block % LIGHT_LEVEL_COUNT] + this.skyLightLevels[block % LIGHT_LEVEL_COUNT];
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCKS)
+    public int tableDriven() {
+        var result = 0;
+        for (var block = 0; block < BLOCKS; block++) {
+            final var opaqueBitMask = prepareBlockLight(block);
+            CosmicLightBleedFix.updateBlockLightLevels(this.blockLightLevels, this.neighborLightLevels, opaqueBitMask);
+            prepareSkyLight(block);
+            CosmicLightBleedFix.updateSkyLightLevels(this.skyLightLevels, this.neighborLightLevels, opaqueBitMask);
+            result += this.blockLightLevels[block % LIGHT_LEVEL_COUNT] + this.skyLightLevels[block % LIGHT_LEVEL_COUNT];
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCKS)
+    public int vectorized(final VectorizedKernel vectorizedKernel) {
+        final var kernel = vectorizedKernel.kernel;
+        var result = 0;
+        for (var block = 0; block < BLOCKS; block++) {
+            final var opaqueBitMask = prepareBlockLight(block);
+            kernel.updateBlockLightLevels(this.blockLightLevels, this.neighborLightLevels, opaqueBitMask);
+            prepareSkyLight(block);
+            kernel.updateSkyLightLevels(this.skyLightLevels, this.neighborLightLevels, opaqueBitMask);
+            result += this.blockLightLevels[block % LIGHT_LEVEL_COUNT] + this.skyLightLevels[block % LIGHT_LEVEL_COUNT];
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCKS)
+    public int meshingContext() {
+        final var context = MeshingContext.get();
+        final var contextNeighborLightLevels = context.getNeighborLightLevels();
+        var result = 0;
+        for (var block = 0; block < BLOCKS; block++) {
+            final var opaqueBitMask = prepareBlockLight(block);
+            System.arraycopy(this.neighborLightLevels, 0, contextNeighborLightLevels, 0, NEIGHBOR_COUNT);
+            context.updateBlockLightLevels(this.blockLightLevels, opaqueBitMask);
+            prepareSkyLight(block);
+            System.arraycopy(this.neighborLightLevels, 0, contextNeighborLightLevels, 0, NEIGHBOR_COUNT);
+            context.updateSkyLightLevels(this.skyLightLevels, opaqueBitMask);
+            result += this.blockLightLevels[block % LIGHT_LEVEL_COUNT] + this.skyLightLevels[block % LIGHT_LEVEL_COUNT];
+        }
+        return result;
+    }
+
+    /**
+     * Clears the block light levels and loads a block's neighborhood, as the game
+     * does before each light calculation.
+     *
+     * @param block the block index
+     * @return the opaque bit mask of the block
+     */
+    private int prepareBlockLight(final int block) {
+        Arrays.fill(this.blockLightLevels, (short) 0);
+        System.arraycopy(this.neighborhoods.blockLightLevels, block * NEIGHBOR_COUNT, this.neighborLightLevels, 0, NEIGHBOR_COUNT);
+        return this.neighborhoods.opaqueBitMasks[block];
+    }
+
+    /**
+     * Clears the sky-light levels and loads a block's neighborhood, as the game
+     * does before each light calculation.
+     *
+     * @param block the block index
+     */
+    private void prepareSkyLight(final int block) {
+        Arrays.fill(this.skyLightLevels, 0);
+        System.arraycopy(this.neighborhoods.skyLightLevels, block * NEIGHBOR_COUNT, this.neighborLightLevels, 0, NEIGHBOR_COUNT);
+    }
+}
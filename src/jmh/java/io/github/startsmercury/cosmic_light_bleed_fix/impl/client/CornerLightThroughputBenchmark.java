@@ -0,0 +1,14 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/**
+ * Reports {@link CornerLightBenchmark} as blocks per second per thread.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CornerLightThroughputBenchmark extends CornerLightBenchmark {
+}
@@ -0,0 +1,127 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.NEIGHBOR_COUNT;
+
+import java.util.Random;
+
+/**
+ * Synthetic block neighborhoods, generated without any game state.
+ */
+public final class LightNeighborhoods {
+    /**
+     * All bits of a 26-neighbor opaque bit mask.
+     */
+    static final int ALL_OPAQUE = (1 << 26) - 1;
+
+    /**
+     * The index of the block itself in a neighborhood.
+     */
+    private static final int SELF = CosmicLightBleedFix.getNeighborIndex(0, 0, 0);
+
+    /**
+     * The number of neighborhoods.
+     */
+    final int count;
+
+    /**
+     * Sky-light levels, {@link CosmicLightBleedFix#NEIGHBOR_COUNT} per neighborhood.
+     */
+    final int[] skyLightLevels;
+
+    /**
+     * Block light levels, {@link CosmicLightBleedFix#NEIGHBOR_COUNT} per
+     * neighborhood.
+     */
+    final int[] blockLightLevels;
+
+    /**
+     * The opaque bit mask of each neighborhood.
+     */
+    final int[] opaqueBitMasks;
+
+    private LightNeighborhoods(final int count) {
+        this.count = count;
+        this.skyLightLevels = new int[count * NEIGHBOR_COUNT];
+        this.blockLightLevels = new int[count * NEIGHBOR_COUNT];
+        this.opaqueBitMasks = new int[count];
+    }
+
+    /**
+     * The kinds of generated neighborhoods.
+     */
+    public enum Scenario {
+        /**
+         * Nothing opaque and full sky-light all around, as above terrain.
+         */
+        OPEN_SKY,
+
+        /**
+         * Mostly opaque with no sky-light and dim white block light, as in caves.
+         */
+        SOLID_CAVE,
+
+        /**
+         * Opacity alternating with the parity of each position.
+         */
+        CHECKERBOARD,
+
+        /**
+         * Random opacity, random sky-light, and random colored block light.
+         */
+        RANDOM_COLORED
+    }
+
+    /**
+     * Generates neighborhoods.
+     *
+     * @param scenario the kind of neighborhoods
+     * @param count the number of neighborhoods
+     * @param seed the random seed
+     * @return the generated neighborhoods
+     */
+    static LightNeighborhoods generate(final Scenario scenario, final int count, final long seed) {
+        final var random = new Random(seed);
+        final var neighborhoods = new LightNeighborhoods(count);
+
+        for (var block = 0; block < count; block++) {
+            var opaqueBitMask = 0;
+
+            for (var x = -1; x <= 1; x++) {
+                for (var y = -1; y <= 1; y++) {
+                    for (var z = -1; z <= 1; z++) {
+                        final var neighbor = CosmicLightBleedFix.getNeighborIndex(x, y, z);
+                        if (neighbor == SELF) {
+                            continue;
+                        }
+                        final var i = block * NEIGHBOR_COUNT + neighbor;
+                        final var opaque = switch (scenario) {
+                            case OPEN_SKY -> false;
+                            case SOLID_CAVE -> random.nextInt(4) != 0;
+                            case CHECKERBOARD -> (block + x + y + z & 1) != 0;
+                            case RANDOM_COLORED -> random.nextBoolean();
+                        };
+                        if (opaque) {
+                            opaqueBitMask |= CosmicLightBleedFix.OPAQUE_BITS[neighbor];
+                        }
+
+                        neighborhoods.skyLightLevels[i] = switch (scenario) {
+                            case OPEN_SKY -> 15;
+                            case SOLID_CAVE -> 0;
+                            case CHECKERBOARD, RANDOM_COLORED -> opaque ? 0 : random.nextInt(16);
+                        };
+                        neighborhoods.blockLightLevels[i] = switch (scenario) {
+                            case OPEN_SKY -> 0;
+                            case SOLID_CAVE -> random.nextInt(8) * 0x111;
+                            case CHECKERBOARD -> opaque ? 0 : random.nextInt(16) * 0x111;
+                            case RANDOM_COLORED -> random.nextInt(0x1000);
+                        };
+                    }
+                }
+            }
+
+            neighborhoods.opaqueBitMasks[block] = opaqueBitMask;
+        }
+
+        return neighborhoods;
+    }
+}
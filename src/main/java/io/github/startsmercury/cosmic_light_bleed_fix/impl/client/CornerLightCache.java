@@ -0,0 +1,98 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.LIGHT_LEVEL_COUNT;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.NEIGHBOR_COUNT;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.RELEVANT_OPAQUE_BITS;
+
+import java.util.Arrays;
+
+/**
+ * Small direct-mapped cache of corner light levels keyed by neighborhood.
+ * <p>
+ * Instances are confined to a single thread and hold one light type each. A key
+ * is the neighborhood light levels together with the bits of
+ * {@code opaqueBitMask} that the kernels read. A slot is simply overwritten when
+ * a different key hashes into it.
+ *
+ * @see MeshingContext
+ */
+public final class CornerLightCache {
+    /**
+     * Base two logarithm of the number of slots.
+     */
+    private static final int SLOT_BITS = 6;
+
+    /**
+     * The number of slots.
+     */
+    private static final int SLOT_COUNT = 1 << SLOT_BITS;
+
+    /**
+     * The number of key entries per slot: the relevant opaque bits followed by the
+     * neighborhood light levels.
+     */
+    private static final int KEY_LENGTH = 1 + NEIGHBOR_COUNT;
+
+    /**
+     * The keys of each slot.
+     */
+    private final int[] keys = new int[SLOT_COUNT * KEY_LENGTH];
+
+    /**
+     * The cached light levels of each slot.
+     */
+    private final int[] lightLevels = new int[SLOT_COUNT * LIGHT_LEVEL_COUNT];
+
+    /**
+     * Whether each slot holds a key.
+     */
+    private final boolean[] occupied = new boolean[SLOT_COUNT];
+
+    /**
+     * Looks up the cached light levels of a neighborhood. On a miss the slot is
+     * claimed for the given key and its light levels must be filled in by the
+     * caller before the next lookup.
+     *
+     * @param neighborLightLevels the neighborhood light levels
+     * @param opaqueBitMask the opaque bit mask
+     * @return the offset of the light levels in {@link #getLightLevels} on a hit,
+     *     or its bitwise complement on a miss
+     */
+    public int find(final int[] neighborLightLevels, final int opaqueBitMask) {
+        final var opaqueBits = opaqueBitMask & RELEVANT_OPAQUE_BITS;
+
+        var hash = opaqueBits;
+        for (var i = 0; i < NEIGHBOR_COUNT; i++) {
+            hash = hash * 31 + neighborLightLevels[i];
+        }
+        final var slot = hash * 0x9E3779B9 >>> Integer.SIZE - SLOT_BITS;
+        final var keyOffset = slot * KEY_LENGTH;
+        final var lightLevelOffset = slot * LIGHT_LEVEL_COUNT;
+
+        if (
+            this.occupied[slot]
+                && this.keys[keyOffset] == opaqueBits
+                && Arrays.equals(
+                    this.keys, keyOffset + 1, keyOffset + KEY_LENGTH,
+                    neighborLightLevels, 0, NEIGHBOR_COUNT
+                )
+        ) {
+            return lightLevelOffset;
+        }
+
+        this.occupied[slot] = true;
+        this.keys[keyOffset] = opaqueBits;
+        System.arraycopy(neighborLightLevels, 0, this.keys, keyOffset + 1, NEIGHBOR_COUNT);
+        return ~lightLevelOffset;
+    }
+
+    /**
+     * Returns the cached light levels of all slots.
+     *
+     * @return the cached light levels
+     * @see #find
+     */
+    public int[] getLightLevels() {
+        return this.lightLevels;
+    }
+}
@@ -64,6 +64,281 @@ public final class CosmicLightBleedFix {
      */
     public static final int AXIS_Z = 2;
 
+    /**
+     * Whether the {@code jdk.incubator.vector} module is present at startup.
+     */
+    public static final boolean VECTOR_API_PRESENT = ModuleLayer.boot()
+        .findModule("jdk.incubator.vector")
+        .isPresent();
+
+    /**
+     * Whether the Vector API kernels should be used in place of the scalar
+     * table-driven kernels. They are no faster and still allocate for block light
+     * on JDK 17, so this is off unless {@link #VECTOR_API_PRESENT} and the
+     * {@code cosmic-light-bleed-fix.vectorized} system property is set to
+     * {@code true}.
+     */
+    public static final boolean VECTORIZED =
+        VECTOR_API_PRESENT && Boolean.getBoolean("cosmic-light-bleed-fix.vectorized");
+
+    /**
+     * The binary name of the Vector API kernel. It is compiled separately against
+     * the {@code jdk.incubator.vector} module and only loaded reflectively.
+     */
+    private static final String VECTORIZED_KERNEL_CLASS_NAME =
+        "io.github.startsmercury.cosmic_light_bleed_fix.impl.client.VectorizedLightBleedFix";
+
+    /**
+     * The table-driven kernels as a {@link LightKernel}.
+     */
+    private static final LightKernel TABLE_DRIVEN_KERNEL = new LightKernel() {
+        @Override
+        public void updateBlockLightLevels(
+            final short[] blockLightLevels,
+            final int[] neighborLightLevels,
+            final int opaqueBitMask
+        ) {
+            CosmicLightBleedFix.updateBlockLightLevels(blockLightLevels, neighborLightLevels, opaqueBitMask);
+        }
+
+        @Override
+        public void updateSkyLightLevels(
+            final int[] skyLightLevels,
+            final int[] neighborLightLevels,
+            final int opaqueBitMask
+        ) {
+            CosmicLightBleedFix.updateSkyLightLevels(skyLightLevels, neighborLightLevels, opaqueBitMask);
+        }
+    };
+
+    /**
+     * Whether corner light levels are looked up in a {@link CornerLightCache} before
+     * running a kernel. The lookup costs more than the table-driven kernel it
+     * saves, so this is off unless the {@code cosmic-light-bleed-fix.cached} system
+     * property is set to {@code true}.
+     */
+    public static final boolean CACHED = Boolean.getBoolean("cosmic-light-bleed-fix.cached");
+
+    /**
+     * The number of light levels per block, one for each vertex towards each axis.
+     */
+    public static final int LIGHT_LEVEL_COUNT = 24;
+
+    /**
+     * The number of entries in a neighborhood light level array. Entries are
+     * ordered by {@code x}, then {@code y}, then {@code z}, each going from negative
+     * to positive.
+     *
+     * @see #getNeighborIndex
+     */
+    public static final int NEIGHBOR_COUNT = 27;
+
+    /**
+     * Bit mask of each neighbor in {@code opaqueBitMask}, indexed by neighbor index.
+     * The block itself has none.
+     */
+    static final int[] OPAQUE_BITS = {
+        1 << 6, 1 << 7, 1 << 8, 1 << 9, 1, 1 << 10, 1 << 11, 1 << 12, 1 << 13,
+        1 << 14, 1 << 2, 1 << 15, 1 << 4, 0, 1 << 5, 1 << 16, 1 << 3, 1 << 17,
+        1 << 18, 1 << 19, 1 << 20, 1 << 21, 1 << 1, 1 << 22, 1 << 23, 1 << 24, 1 << 25
+    };
+
+    /**
+     * Neighbor index at the face, indexed by {@code corner * 3 + axis}.
+     */
+    static final int[] CENTER_NEIGHBORS = new int[LIGHT_LEVEL_COUNT];
+
+    /**
+     * First neighbor index before the corner, indexed by {@code corner * 3 + axis}.
+     */
+    static final int[] EDGE1_NEIGHBORS = new int[LIGHT_LEVEL_COUNT];
+
+    /**
+     * Second neighbor index before the corner, indexed by
+     * {@code corner * 3 + axis}.
+     */
+    static final int[] EDGE2_NEIGHBORS = new int[LIGHT_LEVEL_COUNT];
+
+    /**
+     * Neighbor index at the corner, indexed by {@code corner * 3 + axis}.
+     */
+    static final int[] CORNER_NEIGHBORS = new int[LIGHT_LEVEL_COUNT];
+
+    /**
+     * Opaque bit of the neighbor at the face, indexed by {@code corner * 3 + axis}.
+     */
+    static final int[] CENTER_OPAQUE_BITS = new int[LIGHT_LEVEL_COUNT];
+
+    /**
+     * Opaque bits of both neighbors before the corner, indexed by
+     * {@code corner * 3 + axis}.
+     */
+    static final int[] EDGE_OPAQUE_BITS = new int[LIGHT_LEVEL_COUNT];
+
+    /**
+     * All bits of {@code opaqueBitMask} read by the table-driven kernels.
+     */
+    static final int RELEVANT_OPAQUE_BITS;
+
+    /**
+     * The bits of {@code opaqueBitMask} for the six neighbors sharing a face.
+     */
+    public static final int FACE_OPAQUE_BITS;
+
+    static {
+        for (var corner = CORNER_NxNyNz; corner <= CORNER_PxPyPz; corner++) {
+            final var x = (corner & CORNER_PxNyNz) == 0 ? -1 : 1;
+            final var y = (corner & CORNER_NxPyNz) == 0 ? -1 : 1;
+            final var z = (corner & CORNER_NxNyPz) == 0 ? -1 : 1;
+            final var xyz = getNeighborIndex(x, y, z);
+
+            putCornerPlane(corner, AXIS_X, getNeighborIndex(x, 0, 0), getNeighborIndex(x, 0, z), getNeighborIndex(x, y, 0), xyz);
+            putCornerPlane(corner, AXIS_Y, getNeighborIndex(0, y, 0), getNeighborIndex(0, y, z), getNeighborIndex(x, y, 0), xyz);
+            putCornerPlane(corner, AXIS_Z, getNeighborIndex(0, 0, z), getNeighborIndex(0, y, z), getNeighborIndex(x, 0, z), xyz);
+        }
+
+        var relevantOpaqueBits = 0;
+        var faceOpaqueBits = 0;
+        for (var i = 0; i < LIGHT_LEVEL_COUNT; i++) {
+            relevantOpaqueBits |= CENTER_OPAQUE_BITS[i] | EDGE_OPAQUE_BITS[i];
+            faceOpaqueBits |= CENTER_OPAQUE_BITS[i];
+        }
+        RELEVANT_OPAQUE_BITS = relevantOpaqueBits;
+        FACE_OPAQUE_BITS = faceOpaqueBits;
+    }
+
+    /**
+     * Creates the kernel used for meshing: the Vector API kernel if
+     * {@link #VECTORIZED}, otherwise the table-driven one.
+     *
+     * @return a new or shared light kernel
+     */
+    public static LightKernel createKernel() {
+        if (VECTORIZED) {
+            return createVectorizedKernel();
+        }
+        return TABLE_DRIVEN_KERNEL;
+    }
+
+    /**
+     * Creates a Vector API kernel regardless of {@link #VECTORIZED}.
+     *
+     * @return a new vectorized light kernel
+     * @throws IllegalStateException if the {@code jdk.incubator.vector} module or
+     *     the kernel class is missing
+     */
+    public static LightKernel createVectorizedKernel() {
+        if (!VECTOR_API_PRESENT) {
+            throw new IllegalStateException("The jdk.incubator.vector module is not present");
+        }
+        try {
+            return (LightKernel) Class.forName(VECTORIZED_KERNEL_CLASS_NAME)
+                .getConstructor()
+                .newInstance();
+        } catch (final ReflectiveOperationException cause) {
+            throw new IllegalStateException("The vectorized light kernel is missing", cause);
+        }
+    }
+
+    private static void putCornerPlane(
+        final int corner,
+        final int axis,
+        final int center,
+        final int edge1,
+        final int edge2,
+        final int cornerNeighbor
+    ) {
+        final var index = corner * 3 + axis;
+        CENTER_NEIGHBORS[index] = center;
+        EDGE1_NEIGHBORS[index] = edge1;
+        EDGE2_NEIGHBORS[index] = edge2;
+        CORNER_NEIGHBORS[index] = cornerNeighbor;
+        CENTER_OPAQUE_BITS[index] = OPAQUE_BITS[center];
+        EDGE_OPAQUE_BITS[index] = OPAQUE_BITS[edge1] | OPAQUE_BITS[edge2];
+    }
+
+    /**
+     * Returns whether every face of the block is covered by an opaque neighbor. Light
+     * levels of such a block only mix in the light levels at each face.
+     *
+     * @param opaqueBitMask the opaque bit mask
+     * @return {@code true} if the block is buried, {@code false} otherwise
+     */
+    public static boolean isBuried(final int opaqueBitMask) {
+        return (opaqueBitMask & FACE_OPAQUE_BITS) == FACE_OPAQUE_BITS;
+    }
+
+    /**
+     * Returns the light level shared by all neighbors, if any. Light levels of a
+     * block in such a neighborhood all mix in that light level, whatever the opaque
+     * bit mask is, since every position the kernels read holds the same value.
+     *
+     * @param neighborLightLevels the light levels of the neighborhood
+     * @return the shared light level, or {@code -1} if the neighbors differ
+     */
+    public static int getUniformLightLevel(final int[] neighborLightLevels) {
+        final var self = getNeighborIndex(0, 0, 0);
+        final var light = neighborLightLevels[0];
+        for (var i = 1; i < NEIGHBOR_COUNT; i++) {
+            if (i != self && neighborLightLevels[i] != light) {
+                return -1;
+            }
+        }
+        return light;
+    }
+
+    /**
+     * Returns the index of a neighbor in a neighborhood light level array.
+     *
+     * @param x the x offset in {@code [-1, 1]}
+     * @param y the y offset in {@code [-1, 1]}
+     * @param z the z offset in {@code [-1, 1]}
+     * @return the neighbor index
+     * @see #NEIGHBOR_COUNT
+     */
+    public static int getNeighborIndex(final int x, final int y, final int z) {
+        return (x + 1) * 9 + (y + 1) * 3 + (z + 1);
+    }
+
+    /**
+     * Spreads packed block light channels one byte apart: blue at bit 0, red at bit
+     * 8, and green at bit 16. The bit above each channel is left clear as a guard
+     * for {@link #maxSpreadBlockLight}.
+     *
+     * @param light the packed block light level
+     * @return the spread block light level
+     */
+    static int spreadBlockLight(final int light) {
+        return light & 0xF0F | (light & 0x0F0) << 12;
+    }
+
+    /**
+     * Reverses {@link #spreadBlockLight}.
+     *
+     * @param light the spread block light level
+     * @return the packed block light level
+     */
+    static int compactBlockLight(final int light) {
+        return light & 0xF0F | light >>> 12 & 0x0F0;
+    }
+
+    /**
+     * Returns the channel-wise maximum of two spread block light levels. Setting the
+     * guard bits of {@code a} before subtracting {@code b} leaves each guard set
+     * exactly where {@code a}'s channel is not less than {@code b}'s, with no borrow
+     * crossing channels; the guards are then widened into channel select masks.
+     *
+     * @param a the first spread block light level
+     * @param b the second spread block light level
+     * @return the channel-wise maximum spread block light level
+     * @see #spreadBlockLight
+     */
+    static int maxSpreadBlockLight(final int a, final int b) {
+        final var greaterOrEqual = (a | 0x101010) - b & 0x101010;
+        final var select = greaterOrEqual - (greaterOrEqual >>> 4);
+        return b ^ (a ^ b) & select;
+    }
+
     /**
      * Updates light level for all vertices. Calculations account for light possibly
      * being blocked, especially ones at the corner.
@@ -265,4 +540,194 @@ public final class CosmicLightBleedFix {
         }
         lightLevelSetter.applyAsInt(index, light);
     }
+
+    /**
+     * Updates block light level for all vertices. Calculations account for light
+     * possibly being blocked, especially ones at the corner.
+     * <p>
+     * This is the table-driven equivalent of {@link #updateLightLevels}, reading
+     * each flag and light level through the neighbor tables.
+     *
+     * @param blockLightLevels the block light levels to modify
+     * @param neighborLightLevels the block light levels of the neighborhood
+     * @param opaqueBitMask the opaque bit mask identifies positions blocking light
+     * @see #getNeighborIndex
+     */
+    public static void updateBlockLightLevels(
+        final short[] blockLightLevels,
+        final int[] neighborLightLevels,
+        final int opaqueBitMask
+    ) {
+        for (var i = 0; i < LIGHT_LEVEL_COUNT; i++) {
+            var light = maxSpreadBlockLight(
+                spreadBlockLight(blockLightLevels[i]),
+                spreadBlockLight(neighborLightLevels[CENTER_NEIGHBORS[i]])
+            );
+            if ((opaqueBitMask & CENTER_OPAQUE_BITS[i]) == 0) {
+                light = maxSpreadBlockLight(light, spreadBlockLight(neighborLightLevels[EDGE1_NEIGHBORS[i]]));
+                light = maxSpreadBlockLight(light, spreadBlockLight(neighborLightLevels[EDGE2_NEIGHBORS[i]]));
+                if ((opaqueBitMask & EDGE_OPAQUE_BITS[i]) != EDGE_OPAQUE_BITS[i]) {
+                    light = maxSpreadBlockLight(light, spreadBlockLight(neighborLightLevels[CORNER_NEIGHBORS[i]]));
+                }
+            }
+            blockLightLevels[i] = (short) compactBlockLight(light);
+        }
+    }
+
+    /**
+     * Updates sky-light level for all vertices. Calculations account for light
+     * possibly being blocked, especially ones at the corner.
+     * <p>
+     * This is the table-driven equivalent of {@link #updateLightLevels}, reading
+     * each flag and light level through the neighbor tables.
+     *
+     * @param skyLightLevels the sky-light levels to modify
+     * @param neighborLightLevels the sky-light levels of the neighborhood
+     * @param opaqueBitMask the opaque bit mask identifies positions blocking light
+     * @see #getNeighborIndex
+     */
+    public static void updateSkyLightLevels(
+        final int[] skyLightLevels,
+        final int[] neighborLightLevels,
+        final int opaqueBitMask
+    ) {
+        for (var i = 0; i < LIGHT_LEVEL_COUNT; i++) {
+            var light = Math.max(skyLightLevels[i], neighborLightLevels[CENTER_NEIGHBORS[i]]);
+            if ((opaqueBitMask & CENTER_OPAQUE_BITS[i]) == 0) {
+                light = Math.max(light, neighborLightLevels[EDGE1_NEIGHBORS[i]]);
+                light = Math.max(light, neighborLightLevels[EDGE2_NEIGHBORS[i]]);
+                if ((opaqueBitMask & EDGE_OPAQUE_BITS[i]) != EDGE_OPAQUE_BITS[i]) {
+                    light = Math.max(light, neighborLightLevels[CORNER_NEIGHBORS[i]]);
+                }
+            }
+            skyLightLevels[i] = light;
+        }
+    }
+
+    /**
+     * Updates block light level for all vertices of a buried block. This is
+     * equivalent to the table-driven kernel when {@link #isBuried} holds, since no
+     * light passes the faces towards the edges or corners.
+     *
+     * @param blockLightLevels the block light levels to modify
+     * @param neighborLightLevels the block light levels of the neighborhood
+     */
+    public static void updateBuriedBlockLightLevels(
+        final short[] blockLightLevels,
+        final int[] neighborLightLevels
+    ) {
+        for (var i = 0; i < LIGHT_LEVEL_COUNT; i++) {
+            blockLightLevels[i] = (short) compactBlockLight(maxSpreadBlockLight(
+                spreadBlockLight(blockLightLevels[i]),
+                spreadBlockLight(neighborLightLevels[CENTER_NEIGHBORS[i]])
+            ));
+        }
+    }
+
+    /**
+     * Updates sky-light level for all vertices of a buried block. This is equivalent
+     * to the table-driven kernel when {@link #isBuried} holds, since no light passes
+     * the faces towards the edges or corners.
+     *
+     * @param skyLightLevels the sky-light levels to modify
+     * @param neighborLightLevels the sky-light levels of the neighborhood
+     */
+    public static void updateBuriedSkyLightLevels(
+        final int[] skyLightLevels,
+        final int[] neighborLightLevels
+    ) {
+        for (var i = 0; i < LIGHT_LEVEL_COUNT; i++) {
+            skyLightLevels[i] = Math.max(skyLightLevels[i], neighborLightLevels[CENTER_NEIGHBORS[i]]);
+        }
+    }
+
+    /**
+     * Updates block light level for all vertices in a uniform neighborhood.
+     *
+     * @param blockLightLevels the block light levels to modify
+     * @param light the light level shared by all neighbors
+     * @see #getUniformLightLevel
+     */
+    public static void updateUniformBlockLightLevels(final short[] blockLightLevels, final int light) {
+        final var spreadLight = spreadBlockLight(light);
+        for (var i = 0; i < LIGHT_LEVEL_COUNT; i++) {
+            blockLightLevels[i] = (short) compactBlockLight(maxSpreadBlockLight(
+                spreadBlockLight(blockLightLevels[i]),
+                spreadLight
+            ));
+        }
+    }
+
+    /**
+     * Updates sky-light level for all vertices in a uniform neighborhood.
+     *
+     * @param skyLightLevels the sky-light levels to modify
+     * @param light the light level shared by all neighbors
+     * @see #getUniformLightLevel
+     */
+    public static void updateUniformSkyLightLevels(final int[] skyLightLevels, final int light) {
+        for (var i = 0; i < LIGHT_LEVEL_COUNT; i++) {
+            skyLightLevels[i] = Math.max(skyLightLevels[i], light);
+        }
+    }
+
+    /**
+     * Moves light levels indexed by {@code corner * 3 + axis} to be indexed by
+     * {@code corner}, keeping the {@link #AXIS_X} light level of each corner. This
+     * is the layout the game's own calculations work with.
+     *
+     * @param blockLightLevels the block light levels to modify
+     * @see #unpackCornerLightLevels(short[])
+     */
+    public static void packCornerLightLevels(final short[] blockLightLevels) {
+        for (var corner = CORNER_NxNyNz; corner <= CORNER_PxPyPz; corner++) {
+            blockLightLevels[corner] = blockLightLevels[corner * 3 + AXIS_X];
+        }
+    }
+
+    /**
+     * Moves light levels indexed by {@code corner * 3 + axis} to be indexed by
+     * {@code corner}, keeping the {@link #AXIS_X} light level of each corner. This
+     * is the layout the game's own calculations work with.
+     *
+     * @param skyLightLevels the sky-light levels to modify
+     * @see #unpackCornerLightLevels(int[])
+     */
+    public static void packCornerLightLevels(final int[] skyLightLevels) {
+        for (var corner = CORNER_NxNyNz; corner <= CORNER_PxPyPz; corner++) {
+            skyLightLevels[corner] = skyLightLevels[corner * 3 + AXIS_X];
+        }
+    }
+
+    /**
+     * Copies light levels indexed by {@code corner} to all three axes, indexed by
+     * {@code corner * 3 + axis}.
+     *
+     * @param blockLightLevels the block light levels to modify
+     * @see #packCornerLightLevels(short[])
+     */
+    public static void unpackCornerLightLevels(final short[] blockLightLevels) {
+        for (var corner = CORNER_PxPyPz; corner >= CORNER_NxNyNz; corner--) {
+            final var light = blockLightLevels[corner];
+            blockLightLevels[corner * 3 + AXIS_X] = light;
+            blockLightLevels[corner * 3 + AXIS_Y] = light;
+            blockLightLevels[corner * 3 + AXIS_Z] = light;
+        }
+    }
+
+    /**
+     * Copies light levels indexed by {@code corner} to all three axes, indexed by
+     * {@code corner * 3 + axis}.
+     *
+     * @param skyLightLevels the sky-light levels to modify
+     * @see #packCornerLightLevels(int[])
+     */
+    public static void unpackCornerLightLevels(final int[] skyLightLevels) {
+        for (var corner = CORNER_PxPyPz; corner >= CORNER_NxNyNz; corner--) {
+            final var light = skyLightLevels[corner];
+            skyLightLevels[corner * 3 + AXIS_X] = light;
+            skyLightLevels[corner * 3 + AXIS_Y] = light;
+            skyLightLevels[corner * 3 + AXIS_Z] = light;
+        }
+    }
 }
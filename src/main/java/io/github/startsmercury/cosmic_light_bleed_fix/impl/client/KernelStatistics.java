@@ -0,0 +1,195 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+/**
+ * Counters of the light level kernels while meshing a single chunk.
+ * <p>
+ * Instances are confined to a single thread, so counting is plain arithmetic.
+ * The counts are handed to {@link LightBleedMetrics} once the chunk is done.
+ *
+ * @see MeshingContext
+ */
+public final class KernelStatistics {
+    /**
+     * Mask of the call count selecting which calls are timed. One in every
+     * {@code SAMPLE_MASK + 1} calls is sampled.
+     */
+    private static final int SAMPLE_MASK = 63;
+
+    /**
+     * When meshing of the chunk started, as reported by {@link System#nanoTime}.
+     */
+    private long startNanos;
+
+    /**
+     * The number of light level updates.
+     */
+    private int calls;
+
+    /**
+     * The number of light level updates for buried blocks.
+     *
+     * @see CosmicLightBleedFix#isBuried
+     */
+    private int buriedBlocks;
+
+    /**
+     * The number of light level updates for blocks in uniform neighborhoods.
+     *
+     * @see CosmicLightBleedFix#getUniformLightLevel
+     */
+    private int uniformBlocks;
+
+    /**
+     * The number of light level updates found in the cache.
+     */
+    private int cacheHits;
+
+    /**
+     * The number of light level updates not found in the cache.
+     */
+    private int cacheMisses;
+
+    /**
+     * The number of timed light level updates.
+     */
+    private int samples;
+
+    /**
+     * The total time taken by timed light level updates in nanoseconds.
+     */
+    private long sampledNanos;
+
+    /**
+     * Clears all counters before meshing a chunk.
+     */
+    public void begin() {
+        this.startNanos = System.nanoTime();
+        this.calls = 0;
+        this.buriedBlocks = 0;
+        this.uniformBlocks = 0;
+        this.cacheHits = 0;
+        this.cacheMisses = 0;
+        this.samples = 0;
+        this.sampledNanos = 0;
+    }
+
+    /**
+     * Counts a light level update and returns whether it should be timed.
+     *
+     * @return {@code true} if the update should be timed, {@code false} otherwise
+     */
+    public boolean countCall() {
+        return (this.calls++ & SAMPLE_MASK) == 0;
+    }
+
+    /**
+     * Adds the time taken by a timed light level update.
+     *
+     * @param nanos the time taken in nanoseconds
+     */
+    public void addSample(final long nanos) {
+        this.samples++;
+        this.sampledNanos += nanos;
+    }
+
+    /**
+     * Counts a light level update for a buried block.
+     */
+    public void countBuriedBlock() {
+        this.buriedBlocks++;
+    }
+
+    /**
+     * Counts a light level update for a block in a uniform neighborhood.
+     */
+    public void countUniformBlock() {
+        this.uniformBlocks++;
+    }
+
+    /**
+     * Counts a light level update found in the cache.
+     */
+    public void countCacheHit() {
+        this.cacheHits++;
+    }
+
+    /**
+     * Counts a light level update not found in the cache.
+     */
+    public void countCacheMiss() {
+        this.cacheMisses++;
+    }
+
+    /**
+     * Returns the time since {@link #begin} in nanoseconds.
+     *
+     * @return the elapsed time
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - this.startNanos;
+    }
+
+    /**
+     * Returns the number of light level updates.
+     *
+     * @return the number of calls
+     */
+    public int getCalls() {
+        return this.calls;
+    }
+
+    /**
+     * Returns the number of light level updates for buried blocks.
+     *
+     * @return the number of buried blocks
+     */
+    public int getBuriedBlocks() {
+        return this.buriedBlocks;
+    }
+
+    /**
+     * Returns the number of light level updates for blocks in uniform
+     * neighborhoods.
+     *
+     * @return the number of uniform blocks
+     */
+    public int getUniformBlocks() {
+        return this.uniformBlocks;
+    }
+
+    /**
+     * Returns the number of light level updates found in the cache.
+     *
+     * @return the number of cache hits
+     */
+    public int getCacheHits() {
+        return this.cacheHits;
+    }
+
+    /**
+     * Returns the number of light level updates not found in the cache.
+     *
+     * @return the number of cache misses
+     */
+    public int getCacheMisses() {
+        return this.cacheMisses;
+    }
+
+    /**
+     * Returns the number of timed light level updates.
+     *
+     * @return the number of samples
+     */
+    public int getSamples() {
+        return this.samples;
+    }
+
+    /**
+     * Returns the total time taken by timed light level updates.
+     *
+     * @return the sampled time in nanoseconds
+     */
+    public long getSampledNanos() {
+        return this.sampledNanos;
+    }
+}
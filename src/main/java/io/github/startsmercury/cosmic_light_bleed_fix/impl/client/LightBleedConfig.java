@@ -0,0 +1,115 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+import java.io.IOException;
+import java.lang.System.Logger.Level;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+import org.quiltmc.loader.api.QuiltLoader;
+
+/**
+ * Configuration of the mod, stored as properties in the Quilt config directory.
+ * <p>
+ * The file is read on first use. Unreadable files and unknown values fall back to
+ * {@link LightQuality#FULL} with a warning rather than failing the meshing thread
+ * that first asked. Values may change while meshing is in progress; chunks keep
+ * the light levels they were meshed with until the game remeshes them.
+ *
+ * @see LightBleedConfigScreen
+ */
+public final class LightBleedConfig {
+    private static final System.Logger LOGGER = System.getLogger(LightBleedConfig.class.getName());
+
+    /**
+     * The name of the configuration file.
+     */
+    private static final String FILE_NAME = "cosmic-light-bleed-fix.properties";
+
+    /**
+     * The property holding the light quality name.
+     */
+    private static final String QUALITY_KEY = "quality";
+
+    /**
+     * The light quality in use, or {@code null} until the file is read.
+     */
+    private static volatile LightQuality lightQuality;
+
+    private LightBleedConfig() {
+    }
+
+    /**
+     * Returns the light quality in use, reading the configuration file first if it
+     * has not been read yet.
+     *
+     * @return the light quality
+     */
+    public static LightQuality getLightQuality() {
+        final var quality = lightQuality;
+        if (quality != null) {
+            return quality;
+        }
+
+        synchronized (LightBleedConfig.class) {
+            if (lightQuality == null) {
+                lightQuality = load();
+            }
+            return lightQuality;
+        }
+    }
+
+    /**
+     * Changes the light quality and saves it. The change applies to chunks meshed
+     * after it, even if saving fails.
+     *
+     * @param quality the light quality
+     */
+    public static void setLightQuality(final LightQuality quality) {
+        synchronized (LightBleedConfig.class) {
+            lightQuality = quality;
+            save(quality);
+        }
+    }
+
+    private static Path getPath() {
+        return QuiltLoader.getConfigDir().resolve(FILE_NAME);
+    }
+
+    private static LightQuality load() {
+        final var path = getPath();
+        final var properties = new Properties();
+        try (final var reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        } catch (final NoSuchFileException e) {
+            return LightQuality.FULL;
+        } catch (final IOException | IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Could not read " + path + "; using " + LightQuality.FULL, e);
+            return LightQuality.FULL;
+        }
+
+        final var quality = properties.getProperty(QUALITY_KEY, LightQuality.FULL.name());
+        try {
+            return LightQuality.valueOf(quality.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Unknown light quality \"" + quality + "\" in " + path + "; using " + LightQuality.FULL);
+            return LightQuality.FULL;
+        }
+    }
+
+    private static void save(final LightQuality quality) {
+        final var path = getPath();
+        final var properties = new Properties();
+        properties.setProperty(QUALITY_KEY, quality.name());
+
+        try {
+            Files.createDirectories(path.getParent());
+            try (final var writer = Files.newBufferedWriter(path)) {
+                properties.store(writer, "Cosmic Light Bleed Fix: quality is one of FULL or VANILLA");
+            }
+        } catch (final IOException e) {
+            LOGGER.log(Level.WARNING, "Could not save " + path, e);
+        }
+    }
+}
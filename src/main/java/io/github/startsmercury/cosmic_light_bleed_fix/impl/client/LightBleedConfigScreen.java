@@ -0,0 +1,72 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+import com.badlogic.gdx.utils.ScreenUtils;
+import finalforeach.cosmicreach.gamestates.GameState;
+import finalforeach.cosmicreach.ui.UIElement;
+
+/**
+ * Config screen switching the light quality, opened from Mod Menu.
+ * <p>
+ * The light quality is saved as soon as it is switched. Chunks already meshed
+ * keep their light levels until the game remeshes them.
+ *
+ * @see LightBleedConfig
+ * @see LightBleedModMenu
+ */
+public final class LightBleedConfigScreen extends GameState {
+    /**
+     * The game state to return to when done.
+     */
+    private final GameState previousState;
+
+    /**
+     * Creates a config screen.
+     *
+     * @param previousState the game state to return to when done
+     */
+    public LightBleedConfigScreen(final GameState previousState) {
+        this.previousState = previousState;
+    }
+
+    @Override
+    public void create() {
+        super.create();
+
+        final var qualityButton = new UIElement(0.0F, -50.0F, 250.0F, 50.0F) {
+            @Override
+            public void onClick() {
+                super.onClick();
+                LightBleedConfig.setLightQuality(LightBleedConfig.getLightQuality().next());
+                setText(getQualityText());
+            }
+        };
+        qualityButton.setText(getQualityText());
+        qualityButton.show();
+        this.uiObjects.add(qualityButton);
+
+        final var doneButton = new UIElement(0.0F, 50.0F, 250.0F, 50.0F) {
+            @Override
+            public void onClick() {
+                super.onClick();
+                GameState.switchToGameState(LightBleedConfigScreen.this.previousState);
+            }
+        };
+        doneButton.setText("Done");
+        doneButton.show();
+        this.uiObjects.add(doneButton);
+    }
+
+    @Override
+    public void render() {
+        super.render();
+        ScreenUtils.clear(0.0F, 0.0F, 0.0F, 1.0F, true);
+        drawUIElements();
+    }
+
+    private static String getQualityText() {
+        return "Light Quality: " + switch (LightBleedConfig.getLightQuality()) {
+            case FULL -> "Full";
+            case VANILLA -> "Vanilla";
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event committed once per meshed chunk.
+ * <p>
+ * Enable with {@code jcmd <pid> JFR.start} and a settings file enabling
+ * {@code cosmic_light_bleed_fix.LightBleedKernel}.
+ *
+ * @see LightBleedMetrics#publish
+ */
+@Name("cosmic_light_bleed_fix.LightBleedKernel")
+@Label("Light Bleed Kernel")
+@Category("Cosmic Light Bleed Fix")
+@Description("Light level updates while meshing a chunk")
+@StackTrace(false)
+public final class LightBleedKernelEvent extends Event {
+    /**
+     * The time spent meshing the chunk.
+     */
+    @Label("Meshing Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long meshingNanos;
+
+    /**
+     * The number of light level updates.
+     */
+    @Label("Kernel Calls")
+    int kernelCalls;
+
+    /**
+     * The number of light level updates for buried blocks.
+     */
+    @Label("Buried Blocks")
+    int buriedBlocks;
+
+    /**
+     * The number of light level updates for blocks in uniform neighborhoods.
+     */
+    @Label("Uniform Blocks")
+    int uniformBlocks;
+
+    /**
+     * The number of light level updates found in the cache.
+     */
+    @Label("Cache Hits")
+    int cacheHits;
+
+    /**
+     * The number of light level updates not found in the cache.
+     */
+    @Label("Cache Misses")
+    int cacheMisses;
+
+    /**
+     * The number of timed light level updates.
+     */
+    @Label("Kernel Samples")
+    int kernelSamples;
+
+    /**
+     * The total time taken by timed light level updates.
+     */
+    @Label("Sampled Kernel Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long sampledKernelNanos;
+}
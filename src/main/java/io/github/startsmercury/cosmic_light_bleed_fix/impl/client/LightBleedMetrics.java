@@ -0,0 +1,155 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide counters of the light level kernels.
+ * <p>
+ * Meshing threads count into their own {@link KernelStatistics} and publish once
+ * per chunk, so the shared counters are touched once per chunk rather than once
+ * per block. The counters are exposed as the
+ * {@code io.github.startsmercury.cosmic_light_bleed_fix:type=LightBleedMetrics}
+ * MBean and, per chunk, as {@link LightBleedKernelEvent}.
+ */
+public final class LightBleedMetrics implements LightBleedMetricsMBean {
+    /**
+     * The object name of the registered MBean.
+     */
+    public static final String OBJECT_NAME = "io.github.startsmercury.cosmic_light_bleed_fix:type=LightBleedMetrics";
+
+    private static final LongAdder CHUNKS = new LongAdder();
+
+    private static final LongAdder MESHING_NANOS = new LongAdder();
+
+    private static final LongAdder KERNEL_CALLS = new LongAdder();
+
+    private static final LongAdder BURIED_BLOCKS = new LongAdder();
+
+    private static final LongAdder UNIFORM_BLOCKS = new LongAdder();
+
+    private static final LongAdder CACHE_HITS = new LongAdder();
+
+    private static final LongAdder CACHE_MISSES = new LongAdder();
+
+    private static final LongAdder KERNEL_SAMPLES = new LongAdder();
+
+    private static final LongAdder SAMPLED_KERNEL_NANOS = new LongAdder();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                .registerMBean(new LightBleedMetrics(), new ObjectName(OBJECT_NAME));
+        } catch (final InstanceAlreadyExistsException e) {
+            // Already registered by another class loader; metrics stay local.
+        } catch (final JMException e) {
+            throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    private LightBleedMetrics() {
+    }
+
+    /**
+     * Adds the counters of a meshed chunk and commits a
+     * {@link LightBleedKernelEvent} if one is being recorded.
+     *
+     * @param statistics the counters of the chunk
+     */
+    public static void publish(final KernelStatistics statistics) {
+        final var meshingNanos = statistics.getElapsedNanos();
+
+        CHUNKS.increment();
+        MESHING_NANOS.add(meshingNanos);
+        KERNEL_CALLS.add(statistics.getCalls());
+        BURIED_BLOCKS.add(statistics.getBuriedBlocks());
+        UNIFORM_BLOCKS.add(statistics.getUniformBlocks());
+        CACHE_HITS.add(statistics.getCacheHits());
+        CACHE_MISSES.add(statistics.getCacheMisses());
+        KERNEL_SAMPLES.add(statistics.getSamples());
+        SAMPLED_KERNEL_NANOS.add(statistics.getSampledNanos());
+
+        final var event = new LightBleedKernelEvent();
+        if (event.shouldCommit()) {
+            event.meshingNanos = meshingNanos;
+            event.kernelCalls = statistics.getCalls();
+            event.buriedBlocks = statistics.getBuriedBlocks();
+            event.uniformBlocks = statistics.getUniformBlocks();
+            event.cacheHits = statistics.getCacheHits();
+            event.cacheMisses = statistics.getCacheMisses();
+            event.kernelSamples = statistics.getSamples();
+            event.sampledKernelNanos = statistics.getSampledNanos();
+            event.commit();
+        }
+    }
+
+    @Override
+    public long getChunks() {
+        return CHUNKS.sum();
+    }
+
+    @Override
+    public long getMeshingNanos() {
+        return MESHING_NANOS.sum();
+    }
+
+    @Override
+    public long getKernelCalls() {
+        return KERNEL_CALLS.sum();
+    }
+
+    @Override
+    public long getBuriedBlocks() {
+        return BURIED_BLOCKS.sum();
+    }
+
+    @Override
+    public long getUniformBlocks() {
+        return UNIFORM_BLOCKS.sum();
+    }
+
+    @Override
+    public long getCacheHits() {
+        return CACHE_HITS.sum();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return CACHE_MISSES.sum();
+    }
+
+    @Override
+    public long getKernelSamples() {
+        return KERNEL_SAMPLES.sum();
+    }
+
+    @Override
+    public long getSampledKernelNanos() {
+        return SAMPLED_KERNEL_NANOS.sum();
+    }
+
+    @Override
+    public double getMeanKernelNanos() {
+        final var samples = KERNEL_SAMPLES.sum();
+        if (samples == 0) {
+            return 0;
+        }
+        return (double) SAMPLED_KERNEL_NANOS.sum() / samples;
+    }
+
+    @Override
+    public void reset() {
+        CHUNKS.reset();
+        MESHING_NANOS.reset();
+        KERNEL_CALLS.reset();
+        BURIED_BLOCKS.reset();
+        UNIFORM_BLOCKS.reset();
+        CACHE_HITS.reset();
+        CACHE_MISSES.reset();
+        KERNEL_SAMPLES.reset();
+        SAMPLED_KERNEL_NANOS.reset();
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+/**
+ * Management interface of {@link LightBleedMetrics}.
+ */
+public interface LightBleedMetricsMBean {
+    /**
+     * Returns the number of chunks meshed.
+     *
+     * @return the number of chunks
+     */
+    long getChunks();
+
+    /**
+     * Returns the total time spent meshing chunks.
+     *
+     * @return the meshing time in nanoseconds
+     */
+    long getMeshingNanos();
+
+    /**
+     * Returns the number of light level updates.
+     *
+     * @return the number of calls
+     */
+    long getKernelCalls();
+
+    /**
+     * Returns the number of light level updates that skipped the kernel because the
+     * block was buried.
+     *
+     * @return the number of buried blocks
+     */
+    long getBuriedBlocks();
+
+    /**
+     * Returns the number of light level updates that skipped the kernel because all
+     * neighbors had the same light level.
+     *
+     * @return the number of uniform blocks
+     */
+    long getUniformBlocks();
+
+    /**
+     * Returns the number of light level updates found in the cache.
+     *
+     * @return the number of cache hits
+     */
+    long getCacheHits();
+
+    /**
+     * Returns the number of light level updates not found in the cache.
+     *
+     * @return the number of cache misses
+     */
+    long getCacheMisses();
+
+    /**
+     * Returns the number of timed light level updates.
+     *
+     * @return the number of samples
+     */
+    long getKernelSamples();
+
+    /**
+     * Returns the total time taken by timed light level updates.
+     *
+     * @return the sampled time in nanoseconds
+     */
+    long getSampledKernelNanos();
+
+    /**
+     * Returns the mean time taken by a light level update, estimated from the
+     * timed ones.
+     *
+     * @return the mean time in nanoseconds, or zero without samples
+     */
+    double getMeanKernelNanos();
+
+    /**
+     * Clears all counters.
+     */
+    void reset();
+}
@@ -0,0 +1,15 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+import dev.crmodders.modmenu.api.ConfigScreenFactory;
+import dev.crmodders.modmenu.api.ModMenuApi;
+
+/**
+ * Mod Menu entrypoint, registered as {@code modmenu} in {@code quilt.mod.json}.
+ * Only loaded when Mod Menu is installed.
+ */
+public final class LightBleedModMenu implements ModMenuApi {
+    @Override
+    public ConfigScreenFactory<?> getModConfigScreenFactory() {
+        return LightBleedConfigScreen::new;
+    }
+}
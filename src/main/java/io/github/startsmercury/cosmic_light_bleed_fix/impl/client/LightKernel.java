@@ -0,0 +1,33 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+/**
+ * Kernel updating the light levels of all vertices of a block from its
+ * neighborhood.
+ * <p>
+ * Instances may hold scratch data and are confined to a single thread.
+ *
+ * @see CosmicLightBleedFix#createKernel
+ */
+public interface LightKernel {
+    /**
+     * Updates block light level for all vertices. Calculations account for light
+     * possibly being blocked, especially ones at the corner.
+     *
+     * @param blockLightLevels the block light levels to modify
+     * @param neighborLightLevels the block light levels of the neighborhood
+     * @param opaqueBitMask the opaque bit mask identifies positions blocking light
+     * @see CosmicLightBleedFix#updateBlockLightLevels(short[], int[], int)
+     */
+    void updateBlockLightLevels(short[] blockLightLevels, int[] neighborLightLevels, int opaqueBitMask);
+
+    /**
+     * Updates sky-light level for all vertices. Calculations account for light
+     * possibly being blocked, especially ones at the corner.
+     *
+     * @param skyLightLevels the sky-light levels to modify
+     * @param neighborLightLevels the sky-light levels of the neighborhood
+     * @param opaqueBitMask the opaque bit mask identifies positions blocking light
+     * @see CosmicLightBleedFix#updateSkyLightLevels(int[], int[], int)
+     */
+    void updateSkyLightLevels(int[] skyLightLevels, int[] neighborLightLevels, int opaqueBitMask);
+}
@@ -0,0 +1,29 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+/**
+ * How light levels of block vertices are calculated.
+ *
+ * @see LightBleedConfig
+ */
+public enum LightQuality {
+    /**
+     * Light from the face, both edges, and the corner unless both edges are opaque,
+     * separated by axis.
+     */
+    FULL,
+
+    /**
+     * The game's own light levels, shared by all three axes of a vertex.
+     */
+    VANILLA;
+
+    /**
+     * Returns the light quality switched to after this one.
+     *
+     * @return the next light quality
+     */
+    public LightQuality next() {
+        final var values = values();
+        return values[(ordinal() + 1) % values.length];
+    }
+}
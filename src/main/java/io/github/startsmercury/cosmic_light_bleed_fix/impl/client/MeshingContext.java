@@ -0,0 +1,372 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.LIGHT_LEVEL_COUNT;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.NEIGHBOR_COUNT;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.compactBlockLight;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.maxSpreadBlockLight;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.spreadBlockLight;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread scratch data reused across blocks and chunks while meshing. This also
+ * carries data from {@code ChunkMeshGroup.getMeshData} to the light calculations
+ * it calls.
+ * <p>
+ * Each thread has its own context, so none of the arrays here are shared between
+ * concurrently meshing threads. Arrays must not be retained past the call that
+ * acquired them.
+ */
+public final class MeshingContext {
+    /**
+     * The context of each thread.
+     */
+    private static final ThreadLocal<MeshingContext> CONTEXTS =
+        ThreadLocal.withInitial(() -> new MeshingContext(CosmicLightBleedFix.CACHED));
+
+    /**
+     * Block light levels used by {@code ChunkMeshGroup.getMeshData}.
+     */
+    private final short[] meshBlockLightLevels = new short[LIGHT_LEVEL_COUNT];
+
+    /**
+     * Sky-light levels used by {@code ChunkMeshGroup.getMeshData}.
+     */
+    private final int[] meshSkyLightLevels = new int[LIGHT_LEVEL_COUNT];
+
+    /**
+     * Block light levels used by {@code BlockState.addVertices}.
+     */
+    private final short[] vertexBlockLightLevels = new short[LIGHT_LEVEL_COUNT];
+
+    /**
+     * Sky-light levels used by {@code BlockState.addVertices}.
+     */
+    private final int[] vertexSkyLightLevels = new int[LIGHT_LEVEL_COUNT];
+
+    /**
+     * Light levels of the neighborhood of the block being meshed.
+     *
+     * @see CosmicLightBleedFix#getNeighborIndex
+     */
+    private final int[] neighborLightLevels = new int[NEIGHBOR_COUNT];
+
+    /**
+     * The opaque bit mask of the block being meshed.
+     */
+    private int opaqueBitMask;
+
+    /**
+     * Cached block light levels, stored spread, or {@code null} when not caching.
+     *
+     * @see CosmicLightBleedFix#spreadBlockLight
+     */
+    private final CornerLightCache blockLightCache;
+
+    /**
+     * Cached sky-light levels, or {@code null} when not caching.
+     */
+    private final CornerLightCache skyLightCache;
+
+    /**
+     * Block light levels computed from nothing on a cache miss, or {@code null}
+     * when not caching.
+     */
+    private final short[] missBlockLightLevels;
+
+    /**
+     * Sky-light levels computed from nothing on a cache miss, or {@code null} when
+     * not caching.
+     */
+    private final int[] missSkyLightLevels;
+
+    /**
+     * The kernel updating light levels of a neighborhood.
+     */
+    private final LightKernel kernel = CosmicLightBleedFix.createKernel();
+
+    /**
+     * Counters of the chunk being meshed.
+     */
+    private final KernelStatistics statistics = new KernelStatistics();
+
+    /**
+     * Whether the game is calculating light levels in its own layout.
+     *
+     * @see LightQuality#VANILLA
+     */
+    private boolean vanillaCalculation;
+
+    /**
+     * Creates a context that may cache light levels per neighborhood.
+     *
+     * @param cached whether to allocate and use the corner light caches
+     * @see CosmicLightBleedFix#CACHED
+     */
+    MeshingContext(final boolean cached) {
+        if (cached) {
+            this.blockLightCache = new CornerLightCache();
+            this.skyLightCache = new CornerLightCache();
+            this.missBlockLightLevels = new short[LIGHT_LEVEL_COUNT];
+            this.missSkyLightLevels = new int[LIGHT_LEVEL_COUNT];
+        } else {
+            this.blockLightCache = null;
+            this.skyLightCache = null;
+            this.missBlockLightLevels = null;
+            this.missSkyLightLevels = null;
+        }
+    }
+
+    /**
+     * Returns the context of the current thread.
+     *
+     * @return the current context
+     */
+    public static MeshingContext get() {
+        return CONTEXTS.get();
+    }
+
+    /**
+     * Returns the reused block light levels for chunk meshing, cleared as if newly
+     * allocated.
+     *
+     * @return the cleared block light levels
+     */
+    public short[] acquireMeshBlockLightLevels() {
+        Arrays.fill(this.meshBlockLightLevels, (short) 0);
+        return this.meshBlockLightLevels;
+    }
+
+    /**
+     * Returns the reused sky-light levels for chunk meshing, cleared as if newly
+     * allocated.
+     *
+     * @return the cleared sky-light levels
+     */
+    public int[] acquireMeshSkyLightLevels() {
+        Arrays.fill(this.meshSkyLightLevels, 0);
+        return this.meshSkyLightLevels;
+    }
+
+    /**
+     * Returns the reused block light levels for adding block vertices, cleared as
+     * if newly allocated.
+     *
+     * @return the cleared block light levels
+     */
+    public short[] acquireVertexBlockLightLevels() {
+        Arrays.fill(this.vertexBlockLightLevels, (short) 0);
+        return this.vertexBlockLightLevels;
+    }
+
+    /**
+     * Returns the reused sky-light levels for adding block vertices, cleared as if
+     * newly allocated.
+     *
+     * @return the cleared sky-light levels
+     */
+    public int[] acquireVertexSkyLightLevels() {
+        Arrays.fill(this.vertexSkyLightLevels, 0);
+        return this.vertexSkyLightLevels;
+    }
+
+    /**
+     * Returns the reused neighborhood light levels.
+     *
+     * @return the neighborhood light levels
+     * @see CosmicLightBleedFix#getNeighborIndex
+     */
+    public int[] getNeighborLightLevels() {
+        return this.neighborLightLevels;
+    }
+
+    /**
+     * Returns the opaque bit mask of the block being meshed.
+     *
+     * @return the opaque bit mask
+     */
+    public int getOpaqueBitMask() {
+        return this.opaqueBitMask;
+    }
+
+    /**
+     * Sets the opaque bit mask of the block being meshed.
+     *
+     * @param opaqueBitMask the opaque bit mask
+     */
+    public void setOpaqueBitMask(final int opaqueBitMask) {
+        this.opaqueBitMask = opaqueBitMask;
+    }
+
+    /**
+     * Marks that the game is calculating light levels in its own layout, to be
+     * unpacked once it returns.
+     */
+    public void beginVanillaCalculation() {
+        this.vanillaCalculation = true;
+    }
+
+    /**
+     * Returns and clears whether the game was calculating light levels in its own
+     * layout.
+     *
+     * @return {@code true} if the light levels need unpacking, {@code false}
+     *     otherwise
+     * @see CosmicLightBleedFix#unpackCornerLightLevels
+     */
+    public boolean endVanillaCalculation() {
+        final var vanillaCalculation = this.vanillaCalculation;
+        this.vanillaCalculation = false;
+        return vanillaCalculation;
+    }
+
+    /**
+     * Returns the counters of the chunk being meshed.
+     *
+     * @return the kernel statistics
+     */
+    public KernelStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    /**
+     * Updates block light level for all vertices from the neighborhood light levels
+     * in this context.
+     * <p>
+     * Mixing block light levels is a channel-wise maximum, so the light levels a
+     * neighborhood contributes do not depend on the prior light levels. These are
+     * computed once per distinct neighborhood and then mixed in. Buried blocks skip
+     * both the cache and the kernel, as do blocks whose neighbors all have the same
+     * light level. One in every few calls is timed.
+     *
+     * @param blockLightLevels the block light levels to modify
+     * @param opaqueBitMask the opaque bit mask identifies positions blocking light
+     * @see #getNeighborLightLevels
+     */
+    public void updateBlockLightLevels(final short[] blockLightLevels, final int opaqueBitMask) {
+        if (!this.statistics.countCall()) {
+            mixBlockLightLevels(blockLightLevels, opaqueBitMask);
+            return;
+        }
+
+        final var start = System.nanoTime();
+        mixBlockLightLevels(blockLightLevels, opaqueBitMask);
+        this.statistics.addSample(System.nanoTime() - start);
+    }
+
+    /**
+     * Mixes in the block light levels contributed by the neighborhood.
+     *
+     * @param blockLightLevels the block light levels to modify
+     * @param opaqueBitMask the opaque bit mask identifies positions blocking light
+     */
+    private void mixBlockLightLevels(final short[] blockLightLevels, final int opaqueBitMask) {
+        final var uniformLight = CosmicLightBleedFix.getUniformLightLevel(this.neighborLightLevels);
+        if (uniformLight >= 0) {
+            this.statistics.countUniformBlock();
+            CosmicLightBleedFix.updateUniformBlockLightLevels(blockLightLevels, uniformLight);
+            return;
+        }
+
+        if (CosmicLightBleedFix.isBuried(opaqueBitMask)) {
+            this.statistics.countBuriedBlock();
+            CosmicLightBleedFix.updateBuriedBlockLightLevels(blockLightLevels, this.neighborLightLevels);
+            return;
+        }
+
+        if (this.blockLightCache == null) {
+            this.kernel.updateBlockLightLevels(blockLightLevels, this.neighborLightLevels, opaqueBitMask);
+            return;
+        }
+
+        final var cached = this.blockLightCache.getLightLevels();
+        var offset = this.blockLightCache.find(this.neighborLightLevels, opaqueBitMask);
+        if (offset >= 0) {
+            this.statistics.countCacheHit();
+        } else {
+            this.statistics.countCacheMiss();
+            offset = ~offset;
+            final var computed = this.missBlockLightLevels;
+            Arrays.fill(computed, (short) 0);
+            this.kernel.updateBlockLightLevels(computed, this.neighborLightLevels, opaqueBitMask);
+            for (var i = 0; i < LIGHT_LEVEL_COUNT; i++) {
+                cached[offset + i] = spreadBlockLight(computed[i]);
+            }
+        }
+
+        for (var i = 0; i < LIGHT_LEVEL_COUNT; i++) {
+            blockLightLevels[i] = (short) compactBlockLight(maxSpreadBlockLight(
+                spreadBlockLight(blockLightLevels[i]),
+                cached[offset + i]
+            ));
+        }
+    }
+
+    /**
+     * Updates sky-light level for all vertices from the neighborhood light levels in
+     * this context.
+     * <p>
+     * Mixing sky-light levels is a maximum, so the light levels a neighborhood
+     * contributes do not depend on the prior light levels. These are computed once
+     * per distinct neighborhood and then mixed in. Buried blocks skip both the cache
+     * and the kernel, as do blocks whose neighbors all have the same light level.
+     * One in every few calls is timed.
+     *
+     * @param skyLightLevels the sky-light levels to modify
+     * @param opaqueBitMask the opaque bit mask identifies positions blocking light
+     * @see #getNeighborLightLevels
+     */
+    public void updateSkyLightLevels(final int[] skyLightLevels, final int opaqueBitMask) {
+        if (!this.statistics.countCall()) {
+            mixSkyLightLevels(skyLightLevels, opaqueBitMask);
+            return;
+        }
+
+        final var start = System.nanoTime();
+        mixSkyLightLevels(skyLightLevels, opaqueBitMask);
+        this.statistics.addSample(System.nanoTime() - start);
+    }
+
+    /**
+     * Mixes in the sky-light levels contributed by the neighborhood.
+     *
+     * @param skyLightLevels the sky-light levels to modify
+     * @param opaqueBitMask the opaque bit mask identifies positions blocking light
+     */
+    private void mixSkyLightLevels(final int[] skyLightLevels, final int opaqueBitMask) {
+        final var uniformLight = CosmicLightBleedFix.getUniformLightLevel(this.neighborLightLevels);
+        if (uniformLight >= 0) {
+            this.statistics.countUniformBlock();
+            CosmicLightBleedFix.updateUniformSkyLightLevels(skyLightLevels, uniformLight);
+            return;
+        }
+
+        if (CosmicLightBleedFix.isBuried(opaqueBitMask)) {
+            this.statistics.countBuriedBlock();
+            CosmicLightBleedFix.updateBuriedSkyLightLevels(skyLightLevels, this.neighborLightLevels);
+            return;
+        }
+
+        if (this.skyLightCache == null) {
+            this.kernel.updateSkyLightLevels(skyLightLevels, this.neighborLightLevels, opaqueBitMask);
+            return;
+        }
+
+        final var cached = this.skyLightCache.getLightLevels();
+        var offset = this.skyLightCache.find(this.neighborLightLevels, opaqueBitMask);
+        if (offset >= 0) {
+            this.statistics.countCacheHit();
+        } else {
+            this.statistics.countCacheMiss();
+            offset = ~offset;
+            final var computed = this.missSkyLightLevels;
+            Arrays.fill(computed, 0);
+            this.kernel.updateSkyLightLevels(computed, this.neighborLightLevels, opaqueBitMask);
+            System.arraycopy(computed, 0, cached, offset, LIGHT_LEVEL_COUNT);
+        }
+
+        for (var i = 0; i < LIGHT_LEVEL_COUNT; i++) {
+            skyLightLevels[i] = Math.max(skyLightLevels[i], cached[offset + i]);
+        }
+    }
+}
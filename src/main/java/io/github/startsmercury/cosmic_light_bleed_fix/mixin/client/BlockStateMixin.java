@@ -1,7 +1,10 @@
 package io.github.startsmercury.cosmic_light_bleed_fix.mixin.client;
 
-import com.llamalad7.mixinextras.injector.ModifyExpressionValue;
+import com.llamalad7.mixinextras.expression.Expression;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
 import finalforeach.cosmicreach.blocks.BlockState;
+import io.github.startsmercury.cosmic_light_bleed_fix.impl.client.MeshingContext;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 
@@ -13,20 +16,44 @@ import org.spongepowered.asm.mixin.injection.At;
 @Mixin(BlockState.class)
 public class BlockStateMixin {
     /**
-     * Triples sky-light level array allocation size. Each vertex needs separate
-     * lighting data coming from three axes.
+     * Hands out a reused block light level array three times as large in place of
+     * allocating one. Each vertex needs separate lighting data coming from three
+     * axes.
      *
-     * @param original the original allocation size (usually eight)
-     * @return the new allocation size
+     * @param length the original array length, eight
+     * @param original the original allocation
+     * @return the reused array, cleared
      */
-    @ModifyExpressionValue(
+    @Expression("new short[8]")
+    @WrapOperation(
         method = "addVertices(Lfinalforeach/cosmicreach/rendering/IMeshData;III)V",
-        at = {
-            @At(value = "CONSTANT", args = "intValue=8", ordinal = 0),
-            @At(value = "CONSTANT", args = "intValue=8", ordinal = 1)
-        }
+        at = @At(value = "MIXINEXTRAS:EXPRESSION", ordinal = 0)
     )
-    private int expandLightLevelArrays(int original) {
-        return original * 3;
+    private short[] usePooledBlockLightLevelArray(
+        final int length,
+        final Operation<short[]> original
+    ) {
+        return MeshingContext.get().acquireVertexBlockLightLevels();
+    }
+
+    /**
+     * Hands out a reused sky-light level array three times as large in place of
+     * allocating one. Each vertex needs separate lighting data coming from three
+     * axes.
+     *
+     * @param length the original array length, eight
+     * @param original the original allocation
+     * @return the reused array, cleared
+     */
+    @Expression("new int[8]")
+    @WrapOperation(
+        method = "addVertices(Lfinalforeach/cosmicreach/rendering/IMeshData;III)V",
+        at = @At(value = "MIXINEXTRAS:EXPRESSION", ordinal = 0)
+    )
+    private int[] usePooledSkyLightLevelArray(
+        final int length,
+        final Operation<int[]> original
+    ) {
+        return MeshingContext.get().acquireVertexSkyLightLevels();
     }
 }
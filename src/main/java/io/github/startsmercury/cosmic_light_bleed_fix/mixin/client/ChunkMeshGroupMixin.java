@@ -1,14 +1,19 @@
 package io.github.startsmercury.cosmic_light_bleed_fix.mixin.client;
 
 import com.badlogic.gdx.utils.Array;
-import com.llamalad7.mixinextras.injector.ModifyExpressionValue;
+import com.llamalad7.mixinextras.expression.Expression;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
 import com.llamalad7.mixinextras.sugar.Local;
-import com.llamalad7.mixinextras.sugar.Share;
-import com.llamalad7.mixinextras.sugar.ref.LocalIntRef;
 import finalforeach.cosmicreach.rendering.ChunkMeshGroup;
 import finalforeach.cosmicreach.rendering.meshes.MeshData;
 import io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix;
+import io.github.startsmercury.cosmic_light_bleed_fix.impl.client.LightBleedConfig;
+import io.github.startsmercury.cosmic_light_bleed_fix.impl.client.LightBleedMetrics;
+import io.github.startsmercury.cosmic_light_bleed_fix.impl.client.LightQuality;
+import io.github.startsmercury.cosmic_light_bleed_fix.impl.client.MeshingContext;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
@@ -21,49 +26,96 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 @Mixin(ChunkMeshGroup.class)
 public abstract class ChunkMeshGroupMixin {
     /**
-     * Triples block light level array allocation size. Each vertex needs separate
-     * lighting data coming from three axes.
+     * Clears the kernel counters before meshing a chunk.
      *
-     * @param original the original allocation size (usually eight)
-     * @return the new allocation size
+     * @param callback the injector callback
      */
-    @ModifyExpressionValue(
+    @Inject(
         method = """
             getMeshData(\
                 Lfinalforeach/cosmicreach/world/Chunk;\
             )Lcom/badlogic/gdx/utils/Array;\
         """,
-        at = @At(value = "CONSTANT", args = "intValue=8", ordinal = 0)
+        at = @At("HEAD")
     )
-    private static int expandBlockLightLevelArray(int original) {
-        return original * 3;
+    private static void beginKernelStatistics(
+        final CallbackInfoReturnable<Array<MeshData>> callback
+    ) {
+        MeshingContext.get().getStatistics().begin();
     }
 
     /**
-     * Triples sky-light level array allocation size. Each vertex needs separate
-     * lighting data coming from three axes.
+     * Publishes the kernel counters after meshing a chunk.
      *
-     * @param original the original allocation size (usually eight)
-     * @return the new allocation size
-     * @implNote This method allocates an extra one to store a bit mask for the
-     *     preceding cells if they are opaque or not.
+     * @param callback the injector callback
      */
-    @ModifyExpressionValue(
+    @Inject(
         method = """
             getMeshData(\
                 Lfinalforeach/cosmicreach/world/Chunk;\
             )Lcom/badlogic/gdx/utils/Array;\
         """,
-        at = @At(value = "CONSTANT", args = "intValue=8", ordinal = 1)
+        at = @At("RETURN")
     )
-    private static int expandSkyLightLevelArray(int original) {
-        // Adds an extra slot to store `opaqueBitMask`.
-        return original * 3 + 1;
+    private static void publishKernelStatistics(
+        final CallbackInfoReturnable<Array<MeshData>> callback
+    ) {
+        LightBleedMetrics.publish(MeshingContext.get().getStatistics());
+    }
+
+    /**
+     * Hands out a reused block light level array three times as large in place of
+     * allocating one. Each vertex needs separate lighting data coming from three
+     * axes.
+     *
+     * @param length the original array length, eight
+     * @param original the original allocation
+     * @return the reused array, cleared
+     */
+    @Expression("new short[8]")
+    @WrapOperation(
+        method = """
+            getMeshData(\
+                Lfinalforeach/cosmicreach/world/Chunk;\
+            )Lcom/badlogic/gdx/utils/Array;\
+        """,
+        at = @At(value = "MIXINEXTRAS:EXPRESSION", ordinal = 0)
+    )
+    private static short[] usePooledBlockLightLevelArray(
+        final int length,
+        final Operation<short[]> original
+    ) {
+        return MeshingContext.get().acquireMeshBlockLightLevels();
+    }
+
+    /**
+     * Hands out a reused sky-light level array three times as large in place of
+     * allocating one. Each vertex needs separate lighting data coming from three
+     * axes.
+     *
+     * @param length the original array length, eight
+     * @param original the original allocation
+     * @return the reused array, cleared
+     */
+    @Expression("new int[8]")
+    @WrapOperation(
+        method = """
+            getMeshData(\
+                Lfinalforeach/cosmicreach/world/Chunk;\
+            )Lcom/badlogic/gdx/utils/Array;\
+        """,
+        at = @At(value = "MIXINEXTRAS:EXPRESSION", ordinal = 0)
+    )
+    private static int[] usePooledSkyLightLevelArray(
+        final int length,
+        final Operation<int[]> original
+    ) {
+        return MeshingContext.get().acquireMeshSkyLightLevels();
     }
 
     /**
      * Replaces block light level calculations with one that separates light coming
-     * from an axis.
+     * from an axis, unless {@link LightQuality#VANILLA} is in use.
      *
      * @param callback the injector callback
      * @param blockLightLevels the block light levels to modify
@@ -131,57 +183,15 @@ public abstract class ChunkMeshGroupMixin {
         final @Local(ordinal = 31) int lightPxPy0z,
         final @Local(ordinal = 32) int lightPxPyPz
     ) {
-        // Order: negative-positive x, y, and z then binary count with digits
-        //        negative-zero-positive in the placement orders z, y, and x.
-//      final var diaphanousNxNyNz = 0 == (opaqueBitMask & 1 << 6);
-        final var diaphanousNxNy0z = 0 == (opaqueBitMask & 1 << 7);
-//      final var diaphanousNxNyPz = 0 == (opaqueBitMask & 1 << 8);
-        final var diaphanousNx0yNz = 0 == (opaqueBitMask & 1 << 9);
-        final var diaphanousNx0y0z = 0 == (opaqueBitMask & 1);
-        final var diaphanousNx0yPz = 0 == (opaqueBitMask & 1 << 10);
-//      final var diaphanousNxPyNz = 0 == (opaqueBitMask & 1 << 11);
-        final var diaphanousNxPy0z = 0 == (opaqueBitMask & 1 << 12);
-//      final var diaphanousNxPyPz = 0 == (opaqueBitMask & 1 << 13);
-        final var diaphanous0xNyNz = 0 == (opaqueBitMask & 1 << 14);
-        final var diaphanous0xNy0z = 0 == (opaqueBitMask & 1 << 2);
-        final var diaphanous0xNyPz = 0 == (opaqueBitMask & 1 << 15);
-        final var diaphanous0x0yNz = 0 == (opaqueBitMask & 1 << 4);
-        final var diaphanous0x0yPz = 0 == (opaqueBitMask & 1 << 5);
-        final var diaphanous0xPyNz = 0 == (opaqueBitMask & 1 << 16);
-        final var diaphanous0xPy0z = 0 == (opaqueBitMask & 1 << 3);
-        final var diaphanous0xPyPz = 0 == (opaqueBitMask & 1 << 17);
-//      final var diaphanousPxNyNz = 0 == (opaqueBitMask & 1 << 18);
-        final var diaphanousPxNy0z = 0 == (opaqueBitMask & 1 << 19);
-//      final var diaphanousPxNyPz = 0 == (opaqueBitMask & 1 << 20);
-        final var diaphanousPx0yNz = 0 == (opaqueBitMask & 1 << 21);
-        final var diaphanousPx0y0z = 0 == (opaqueBitMask & 1 << 1);
-        final var diaphanousPx0yPz = 0 == (opaqueBitMask & 1 << 22);
-//      final var diaphanousPxPyNz = 0 == (opaqueBitMask & 1 << 23);
-        final var diaphanousPxPy0z = 0 == (opaqueBitMask & 1 << 24);
-//      final var diaphanousPxPyPz = 0 == (opaqueBitMask & 1 << 25);
+        final var context = MeshingContext.get();
+        if (LightBleedConfig.getLightQuality() == LightQuality.VANILLA) {
+            CosmicLightBleedFix.packCornerLightLevels(blockLightLevels);
+            context.beginVanillaCalculation();
+            return;
+        }
 
-        CosmicLightBleedFix.updateLightLevels(
-            i -> blockLightLevels[i],
-            (i, ll) -> blockLightLevels[i] = (short) ll,
-            ChunkMeshGroup::getMaxBlockLight,
-            diaphanous0x0yNz,
-            diaphanous0xNy0z,
-            diaphanous0xNyNz,
-            diaphanousNx0y0z,
-            diaphanousNx0yNz,
-            diaphanousNxNy0z,
-            diaphanous0x0yPz,
-            diaphanous0xNyPz,
-            diaphanousNx0yPz,
-            diaphanous0xPy0z,
-            diaphanous0xPyNz,
-            diaphanousNxPy0z,
-            diaphanous0xPyPz,
-            diaphanousPx0y0z,
-            diaphanousPx0yNz,
-            diaphanousPxNy0z,
-            diaphanousPx0yPz,
-            diaphanousPxPy0z,
+        storeNeighborLightLevels(
+            context.getNeighborLightLevels(),
             lightNxNyNz,
             lightNxNy0z,
             lightNxNyPz,
@@ -209,19 +219,34 @@ public abstract class ChunkMeshGroupMixin {
             lightPxPy0z,
             lightPxPyPz
         );
+        context.updateBlockLightLevels(blockLightLevels, opaqueBitMask);
 
         callback.setReturnValue(blockLightLevels);
         callback.cancel();
     }
 
     /**
-     * Adds {@code opaqueBitMask} to sky-light levels array's end.
+     * Copies the game's block light levels to all three axes of each vertex when
+     * {@link LightQuality#VANILLA} is in use.
+     *
+     * @param callback the injector callback
+     */
+    @Inject(
+        method = "calculateBlockLightLevels(Lfinalforeach/cosmicreach/world/Chunk;[SZIIII)[S",
+        at = @At("RETURN")
+    )
+    private static void unpackVanillaBlockLightLevels(final CallbackInfoReturnable<short[]> callback) {
+        if (MeshingContext.get().endVanillaCalculation()) {
+            CosmicLightBleedFix.unpackCornerLightLevels(callback.getReturnValue());
+        }
+    }
+
+    /**
+     * Passes {@code opaqueBitMask} to the sky-light level calculation through the
+     * current {@link MeshingContext}.
      *
      * @param callback the injector callback
-     * @param skyLightLevels the sky-light levels array to modify
      * @param opaqueBitMask the opaque bit mask
-     * @implNote This method depends on the adjusted implementation of
-     *     {@link #expandSkyLightLevelArray}.
      */
     @Inject(method = "getMeshData", at = @At(value = "INVOKE", target = """
         Lfinalforeach/cosmicreach/rendering/ChunkMeshGroup;\
@@ -229,35 +254,17 @@ public abstract class ChunkMeshGroupMixin {
     """))
     private static void sendOpaqueBitMask(
         final CallbackInfoReturnable<Array<MeshData>> callback,
-        final @Local(ordinal = 0) int[] skyLightLevels,
         final @Local(ordinal = 10) int opaqueBitMask
     ) {
-        skyLightLevels[24] = opaqueBitMask;
-    }
-
-    /**
-     * Retrieves {@code opaqueBitMask} from sky-light levels array's end.
-     *
-     * @param callback the injector callback
-     * @param skyLightLevels the sky-light levels array to read from
-     * @param opaqueBitMaskRef the opaque bit mask local ref to store to
-     */
-    @Inject(method = "calculateSkyLightLevels", at = @At("HEAD"))
-    private static void receiveOpaqueBitMask(
-        final CallbackInfoReturnable<int[]> callback,
-        final @Local(ordinal = 0, argsOnly = true) int[] skyLightLevels,
-        final @Share("opaqueBitMask") LocalIntRef opaqueBitMaskRef
-    ) {
-        opaqueBitMaskRef.set(skyLightLevels[24]);
+        MeshingContext.get().setOpaqueBitMask(opaqueBitMask);
     }
 
     /**
      * Replaces sky-light level calculations with one that separates light coming
-     * from an axis.
+     * from an axis, unless {@link LightQuality#VANILLA} is in use.
      *
      * @param callback the injector callback
      * @param skyLightLevels the sky-light levels to modify
-     * @param opaqueBitMaskRef the opaque bit mask local ref
      * @param lightNxNyNz the sky-light level at {@code (-1, -1, -1)}
      * @param lightNxNy0z the sky-light level at {@code (-1, -1,  0)}
      * @param lightNxNyPz the sky-light level at {@code (-1, -1, +1)}
@@ -293,7 +300,6 @@ public abstract class ChunkMeshGroupMixin {
     private static void overwriteSkyLightCalculation(
         final CallbackInfoReturnable<int[]> callback,
         final @Local(ordinal = 0, argsOnly = true) int[] skyLightLevels,
-        final @Share("opaqueBitMask") LocalIntRef opaqueBitMaskRef,
         final @Local(ordinal = 7) int lightNxNyNz,
         final @Local(ordinal = 8) int lightNxNy0z,
         final @Local(ordinal = 9) int lightNxNyPz,
@@ -321,57 +327,15 @@ public abstract class ChunkMeshGroupMixin {
         final @Local(ordinal = 31) int lightPxPy0z,
         final @Local(ordinal = 32) int lightPxPyPz
     ) {
-        final var opaqueBitMask = opaqueBitMaskRef.get();
+        final var context = MeshingContext.get();
+        if (LightBleedConfig.getLightQuality() == LightQuality.VANILLA) {
+            CosmicLightBleedFix.packCornerLightLevels(skyLightLevels);
+            context.beginVanillaCalculation();
+            return;
+        }
 
-//      final var diaphanousNxNyNz = 0 == (opaqueBitMask & 1 << 6);
-        final var diaphanousNxNy0z = 0 == (opaqueBitMask & 1 << 7);
-//      final var diaphanousNxNyPz = 0 == (opaqueBitMask & 1 << 8);
-        final var diaphanousNx0yNz = 0 == (opaqueBitMask & 1 << 9);
-        final var diaphanousNx0y0z = 0 == (opaqueBitMask & 1);
-        final var diaphanousNx0yPz = 0 == (opaqueBitMask & 1 << 10);
-//      final var diaphanousNxPyNz = 0 == (opaqueBitMask & 1 << 11);
-        final var diaphanousNxPy0z = 0 == (opaqueBitMask & 1 << 12);
-//      final var diaphanousNxPyPz = 0 == (opaqueBitMask & 1 << 13);
-        final var diaphanous0xNyNz = 0 == (opaqueBitMask & 1 << 14);
-        final var diaphanous0xNy0z = 0 == (opaqueBitMask & 1 << 2);
-        final var diaphanous0xNyPz = 0 == (opaqueBitMask & 1 << 15);
-        final var diaphanous0x0yNz = 0 == (opaqueBitMask & 1 << 4);
-        final var diaphanous0x0yPz = 0 == (opaqueBitMask & 1 << 5);
-        final var diaphanous0xPyNz = 0 == (opaqueBitMask & 1 << 16);
-        final var diaphanous0xPy0z = 0 == (opaqueBitMask & 1 << 3);
-        final var diaphanous0xPyPz = 0 == (opaqueBitMask & 1 << 17);
-//      final var diaphanousPxNyNz = 0 == (opaqueBitMask & 1 << 18);
-        final var diaphanousPxNy0z = 0 == (opaqueBitMask & 1 << 19);
-//      final var diaphanousPxNyPz = 0 == (opaqueBitMask & 1 << 20);
-        final var diaphanousPx0yNz = 0 == (opaqueBitMask & 1 << 21);
-        final var diaphanousPx0y0z = 0 == (opaqueBitMask & 1 << 1);
-        final var diaphanousPx0yPz = 0 == (opaqueBitMask & 1 << 22);
-//      final var diaphanousPxPyNz = 0 == (opaqueBitMask & 1 << 23);
-        final var diaphanousPxPy0z = 0 == (opaqueBitMask & 1 << 24);
-//      final var diaphanousPxPyPz = 0 == (opaqueBitMask & 1 << 25);
-
-        CosmicLightBleedFix.updateLightLevels(
-            i -> skyLightLevels[i],
-            (i, ll) -> skyLightLevels[i] = ll,
-            Math::max,
-            diaphanous0x0yNz,
-            diaphanous0xNy0z,
-            diaphanous0xNyNz,
-            diaphanousNx0y0z,
-            diaphanousNx0yNz,
-            diaphanousNxNy0z,
-            diaphanous0x0yPz,
-            diaphanous0xNyPz,
-            diaphanousNx0yPz,
-            diaphanous0xPy0z,
-            diaphanous0xPyNz,
-            diaphanousNxPy0z,
-            diaphanous0xPyPz,
-            diaphanousPx0y0z,
-            diaphanousPx0yNz,
-            diaphanousPxNy0z,
-            diaphanousPx0yPz,
-            diaphanousPxPy0z,
+        storeNeighborLightLevels(
+            context.getNeighborLightLevels(),
             lightNxNyNz,
             lightNxNy0z,
             lightNxNyPz,
@@ -399,8 +363,113 @@ public abstract class ChunkMeshGroupMixin {
             lightPxPy0z,
             lightPxPyPz
         );
+        context.updateSkyLightLevels(skyLightLevels, context.getOpaqueBitMask());
 
         callback.setReturnValue(skyLightLevels);
         callback.cancel();
     }
+
+    /**
+     * Copies the game's sky-light levels to all three axes of each vertex when
+     * {@link LightQuality#VANILLA} is in use.
+     *
+     * @param callback the injector callback
+     */
+    @Inject(method = "calculateSkyLightLevels", at = @At("RETURN"))
+    private static void unpackVanillaSkyLightLevels(final CallbackInfoReturnable<int[]> callback) {
+        if (MeshingContext.get().endVanillaCalculation()) {
+            CosmicLightBleedFix.unpackCornerLightLevels(callback.getReturnValue());
+        }
+    }
+
+    /**
+     * Stores the light levels of the neighborhood in the order expected by
+     * {@link CosmicLightBleedFix}.
+     *
+     * @param neighborLightLevels the neighborhood light levels to store to
+     * @param lightNxNyNz the light level at {@code (-1, -1, -1)}
+     * @param lightNxNy0z the light level at {@code (-1, -1,  0)}
+     * @param lightNxNyPz the light level at {@code (-1, -1, +1)}
+     * @param lightNx0yNz the light level at {@code (-1,  0, -1)}
+     * @param lightNx0y0z the light level at {@code (-1,  0,  0)}
+     * @param lightNx0yPz the light level at {@code (-1,  0, +1)}
+     * @param lightNxPyNz the light level at {@code (-1, +1, -1)}
+     * @param lightNxPy0z the light level at {@code (-1, +1,  0)}
+     * @param lightNxPyPz the light level at {@code (-1, +1, +1)}
+     * @param light0xNyNz the light level at {@code ( 0, -1, -1)}
+     * @param light0xNy0z the light level at {@code ( 0, -1,  0)}
+     * @param light0xNyPz the light level at {@code ( 0, -1, +1)}
+     * @param light0x0yNz the light level at {@code ( 0,  0, -1)}
+     * @param light0x0yPz the light level at {@code ( 0,  0, +1)}
+     * @param light0xPyNz the light level at {@code ( 0, +1, -1)}
+     * @param light0xPy0z the light level at {@code ( 0, +1,  0)}
+     * @param light0xPyPz the light level at {@code ( 0, +1, +1)}
+     * @param lightPxNyNz the light level at {@code (+1, -1, -1)}
+     * @param lightPxNy0z the light level at {@code (+1, -1,  0)}
+     * @param lightPxNyPz the light level at {@code (+1, -1, +1)}
+     * @param lightPx0yNz the light level at {@code (+1,  0, -1)}
+     * @param lightPx0y0z the light level at {@code (+1,  0,  0)}
+     * @param lightPx0yPz the light level at {@code (+1,  0, +1)}
+     * @param lightPxPyNz the light level at {@code (+1, +1, -1)}
+     * @param lightPxPy0z the light level at {@code (+1, +1,  0)}
+     * @param lightPxPyPz the light level at {@code (+1, +1, +1)}
+     * @see CosmicLightBleedFix#getNeighborIndex
+     */
+    @Unique
+    private static void storeNeighborLightLevels(
+        final int[] neighborLightLevels,
+        final int lightNxNyNz,
+        final int lightNxNy0z,
+        final int lightNxNyPz,
+        final int lightNx0yNz,
+        final int lightNx0y0z,
+        final int lightNx0yPz,
+        final int lightNxPyNz,
+        final int lightNxPy0z,
+        final int lightNxPyPz,
+        final int light0xNyNz,
+        final int light0xNy0z,
+        final int light0xNyPz,
+        final int light0x0yNz,
+        final int light0x0yPz,
+        final int light0xPyNz,
+        final int light0xPy0z,
+        final int light0xPyPz,
+        final int lightPxNyNz,
+        final int lightPxNy0z,
+        final int lightPxNyPz,
+        final int lightPx0yNz,
+        final int lightPx0y0z,
+        final int lightPx0yPz,
+        final int lightPxPyNz,
+        final int lightPxPy0z,
+        final int lightPxPyPz
+    ) {
+        neighborLightLevels[0] = lightNxNyNz;
+        neighborLightLevels[1] = lightNxNy0z;
+        neighborLightLevels[2] = lightNxNyPz;
+        neighborLightLevels[3] = lightNx0yNz;
+        neighborLightLevels[4] = lightNx0y0z;
+        neighborLightLevels[5] = lightNx0yPz;
+        neighborLightLevels[6] = lightNxPyNz;
+        neighborLightLevels[7] = lightNxPy0z;
+        neighborLightLevels[8] = lightNxPyPz;
+        neighborLightLevels[9] = light0xNyNz;
+        neighborLightLevels[10] = light0xNy0z;
+        neighborLightLevels[11] = light0xNyPz;
+        neighborLightLevels[12] = light0x0yNz;
+        neighborLightLevels[14] = light0x0yPz;
+        neighborLightLevels[15] = light0xPyNz;
+        neighborLightLevels[16] = light0xPy0z;
+        neighborLightLevels[17] = light0xPyPz;
+        neighborLightLevels[18] = lightPxNyNz;
+        neighborLightLevels[19] = lightPxNy0z;
+        neighborLightLevels[20] = lightPxNyPz;
+        neighborLightLevels[21] = lightPx0yNz;
+        neighborLightLevels[22] = lightPx0y0z;
+        neighborLightLevels[23] = lightPx0yPz;
+        neighborLightLevels[24] = lightPxPyNz;
+        neighborLightLevels[25] = lightPxPy0z;
+        neighborLightLevels[26] = lightPxPyPz;
+    }
 }
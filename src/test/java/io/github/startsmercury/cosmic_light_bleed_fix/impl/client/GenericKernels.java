@@ -0,0 +1,146 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+import finalforeach.cosmicreach.rendering.ChunkMeshGroup;
+
+/**
+ * The generic {@code updateLightLevels} kernel of {@link CosmicLightBleedFix}, run
+ * from a packed neighborhood the same way the mixins used to call it. Every other
+ * kernel is checked against this one.
+ * <p>
+ * The opaque bits are spelled out as in the original mixin rather than read from
+ * {@code CosmicLightBleedFix.OPAQUE_BITS}, which the kernels under test use.
+ */
+final class GenericKernels {
+    private GenericKernels() {
+    }
+
+    /**
+     * Runs the generic kernel on block light levels.
+     *
+     * @param blockLightLevels the block light levels to modify
+     * @param neighborLightLevels the block light levels of the neighborhood
+     * @param opaqueBitMask the opaque bit mask
+     */
+    static void updateBlockLightLevels(
+        final short[] blockLightLevels,
+        final int[] neighborLightLevels,
+        final int opaqueBitMask
+    ) {
+        CosmicLightBleedFix.updateLightLevels(
+            i -> blockLightLevels[i],
+            (i, ll) -> blockLightLevels[i] = (short) ll,
+            ChunkMeshGroup::getMaxBlockLight,
+            diaphanous(opaqueBitMask, 1 << 4), // 0x0yNz
+            diaphanous(opaqueBitMask, 1 << 2), // 0xNy0z
+            diaphanous(opaqueBitMask, 1 << 14), // 0xNyNz
+            diaphanous(opaqueBitMask, 1), // Nx0y0z
+            diaphanous(opaqueBitMask, 1 << 9), // Nx0yNz
+            diaphanous(opaqueBitMask, 1 << 7), // NxNy0z
+            diaphanous(opaqueBitMask, 1 << 5), // 0x0yPz
+            diaphanous(opaqueBitMask, 1 << 15), // 0xNyPz
+            diaphanous(opaqueBitMask, 1 << 10), // Nx0yPz
+            diaphanous(opaqueBitMask, 1 << 3), // 0xPy0z
+            diaphanous(opaqueBitMask, 1 << 16), // 0xPyNz
+            diaphanous(opaqueBitMask, 1 << 12), // NxPy0z
+            diaphanous(opaqueBitMask, 1 << 17), // 0xPyPz
+            diaphanous(opaqueBitMask, 1 << 1), // Px0y0z
+            diaphanous(opaqueBitMask, 1 << 21), // Px0yNz
+            diaphanous(opaqueBitMask, 1 << 19), // PxNy0z
+            diaphanous(opaqueBitMask, 1 << 22), // Px0yPz
+            diaphanous(opaqueBitMask, 1 << 24), // PxPy0z
+            neighborLightLevels[0],
+            neighborLightLevels[1],
+            neighborLightLevels[2],
+            neighborLightLevels[3],
+            neighborLightLevels[4],
+            neighborLightLevels[5],
+            neighborLightLevels[6],
+            neighborLightLevels[7],
+            neighborLightLevels[8],
+            neighborLightLevels[9],
+            neighborLightLevels[10],
+            neighborLightLevels[11],
+            neighborLightLevels[12],
+            neighborLightLevels[14],
+            neighborLightLevels[15],
+            neighborLightLevels[16],
+            neighborLightLevels[17],
+            neighborLightLevels[18],
+            neighborLightLevels[19],
+            neighborLightLevels[20],
+            neighborLightLevels[21],
+            neighborLightLevels[22],
+            neighborLightLevels[23],
+            neighborLightLevels[24],
+            neighborLightLevels[25],
+            neighborLightLevels[26]
+        );
+    }
+
+    /**
+     * Runs the generic kernel on sky-light levels.
+     *
+     * @param skyLightLevels the sky-light levels to modify
+     * @param neighborLightLevels the sky-light levels of the neighborhood
+     * @param opaqueBitMask the opaque bit mask
+     */
+    static void updateSkyLightLevels(
+        final int[] skyLightLevels,
+        final int[] neighborLightLevels,
+        final int opaqueBitMask
+    ) {
+        CosmicLightBleedFix.updateLightLevels(
+            i -> skyLightLevels[i],
+            (i, ll) -> skyLightLevels[i] = ll,
+            Math::max,
+            diaphanous(opaqueBitMask, 1 << 4), // 0x0yNz
+            diaphanous(opaqueBitMask, 1 << 2), // 0xNy0z
+            diaphanous(opaqueBitMask, 1 << 14), // 0xNyNz
+            diaphanous(opaqueBitMask, 1), // Nx0y0z
+            diaphanous(opaqueBitMask, 1 << 9), // Nx0yNz
+            diaphanous(opaqueBitMask, 1 << 7), // NxNy0z
+            diaphanous(opaqueBitMask, 1 << 5), // 0x0yPz
+            diaphanous(opaqueBitMask, 1 << 15), // 0xNyPz
+            diaphanous(opaqueBitMask, 1 << 10), // Nx0yPz
+            diaphanous(opaqueBitMask, 1 << 3), // 0xPy0z
+            diaphanous(opaqueBitMask, 1 << 16), // 0xPyNz
+            diaphanous(opaqueBitMask, 1 << 12), // NxPy0z
+            diaphanous(opaqueBitMask, 1 << 17), // 0xPyPz
+            diaphanous(opaqueBitMask, 1 << 1), // Px0y0z
+            diaphanous(opaqueBitMask, 1 << 21), // Px0yNz
+            diaphanous(opaqueBitMask, 1 << 19), // PxNy0z
+            diaphanous(opaqueBitMask, 1 << 22), // Px0yPz
+            diaphanous(opaqueBitMask, 1 << 24), // PxPy0z
+            neighborLightLevels[0],
+            neighborLightLevels[1],
+            neighborLightLevels[2],
+            neighborLightLevels[3],
+            neighborLightLevels[4],
+            neighborLightLevels[5],
+            neighborLightLevels[6],
+            neighborLightLevels[7],
+            neighborLightLevels[8],
+            neighborLightLevels[9],
+            neighborLightLevels[10],
+            neighborLightLevels[11],
+            neighborLightLevels[12],
+            neighborLightLevels[14],
+            neighborLightLevels[15],
+            neighborLightLevels[16],
+            neighborLightLevels[17],
+            neighborLightLevels[18],
+            neighborLightLevels[19],
+            neighborLightLevels[20],
+            neighborLightLevels[21],
+            neighborLightLevels[22],
+            neighborLightLevels[23],
+            neighborLightLevels[24],
+            neighborLightLevels[25],
+            neighborLightLevels[26]
+        );
+    }
+
+    private static boolean diaphanous(final int opaqueBitMask, final int opaqueBit) {
+        return 0 == (opaqueBitMask & opaqueBit);
+    }
+}
@@ -0,0 +1,196 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.FACE_OPAQUE_BITS;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.LIGHT_LEVEL_COUNT;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.NEIGHBOR_COUNT;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential fuzzing of every optimized kernel against {@link GenericKernels}.
+ * <p>
+ * Each case is a random opaque bit mask, neighborhood, and prior light levels.
+ * Masks are biased towards the interesting extremes: all open, all opaque,
+ * sparse, dense, and buried. Neighborhoods are sometimes uniform or repeated so
+ * the fast paths of {@link MeshingContext} and its cache are exercised too.
+ * Block light levels use all twelve bits of packed color. The block itself is
+ * never part of its neighborhood, as in the game.
+ */
+class LightKernelFuzzTest {
+    /**
+     * The number of cases per kernel.
+     */
+    private static final int CASES = 100_000;
+
+    /**
+     * The fixed seed, so a failure can be reproduced.
+     */
+    private static final long SEED = 0x4C69676874L;
+
+    /**
+     * Every bit of {@code opaqueBitMask}.
+     */
+    private static final int ALL_OPAQUE = (1 << 26) - 1;
+
+    /**
+     * The index of the block itself in a neighborhood.
+     */
+    private static final int SELF = CosmicLightBleedFix.getNeighborIndex(0, 0, 0);
+
+    @Test
+    void tableDrivenMatchesGeneric() {
+        assertMatchesGeneric(CosmicLightBleedFix::updateBlockLightLevels, CosmicLightBleedFix::updateSkyLightLevels);
+    }
+
+    @Test
+    void vectorizedMatchesGeneric() {
+        assumeTrue(CosmicLightBleedFix.VECTOR_API_PRESENT, "jdk.incubator.vector is not present");
+
+        final var kernel = CosmicLightBleedFix.createVectorizedKernel();
+        assertMatchesGeneric(kernel::updateBlockLightLevels, kernel::updateSkyLightLevels);
+    }
+
+    @Test
+    void meshingContextMatchesGeneric() {
+        assertMatchesGeneric(new MeshingContext(false));
+    }
+
+    @Test
+    void cachedMeshingContextMatchesGeneric() {
+        assertMatchesGeneric(new MeshingContext(true));
+    }
+
+    private static void assertMatchesGeneric(final MeshingContext context) {
+        assertMatchesGeneric(
+            (levels, neighbors, mask) -> {
+                System.arraycopy(neighbors, 0, context.getNeighborLightLevels(), 0, NEIGHBOR_COUNT);
+                context.updateBlockLightLevels(levels, mask);
+            },
+            (levels, neighbors, mask) -> {
+                System.arraycopy(neighbors, 0, context.getNeighborLightLevels(), 0, NEIGHBOR_COUNT);
+                context.updateSkyLightLevels(levels, mask);
+            }
+        );
+    }
+
+    /**
+     * A kernel updating block light levels.
+     */
+    @FunctionalInterface
+    private interface BlockKernel {
+        void update(short[] blockLightLevels, int[] neighborLightLevels, int opaqueBitMask);
+    }
+
+    /**
+     * A kernel updating sky-light levels.
+     */
+    @FunctionalInterface
+    private interface SkyKernel {
+        void update(int[] skyLightLevels, int[] neighborLightLevels, int opaqueBitMask);
+    }
+
+    private static void assertMatchesGeneric(final BlockKernel blockKernel, final SkyKernel skyKernel) {
+        final var random = new Random(SEED);
+
+        final var neighborLightLevels = new int[NEIGHBOR_COUNT];
+        final var expectedBlockLightLevels = new short[LIGHT_LEVEL_COUNT];
+        final var expectedSkyLightLevels = new int[LIGHT_LEVEL_COUNT];
+        final var actualBlockLightLevels = new short[LIGHT_LEVEL_COUNT];
+        final var actualSkyLightLevels = new int[LIGHT_LEVEL_COUNT];
+        var opaqueBitMask = 0;
+        var blockLight = false;
+
+        for (var c = 0; c < CASES; c++) {
+            // A quarter of the cases repeat the previous neighborhood with new prior
+            // light levels, which hits the cache.
+            if (c == 0 || random.nextInt(4) != 0) {
+                blockLight = random.nextBoolean();
+                opaqueBitMask = nextOpaqueBitMask(random);
+                fillNeighborLightLevels(random, neighborLightLevels, blockLight ? 0x1000 : 16);
+            }
+            final var zeroPrior = random.nextBoolean();
+            final var mask = opaqueBitMask;
+            final var caseNumber = c;
+
+            if (blockLight) {
+                for (var i = 0; i < LIGHT_LEVEL_COUNT; i++) {
+                    expectedBlockLightLevels[i] = (short) (zeroPrior ? 0 : random.nextInt(0x1000));
+                }
+                System.arraycopy(expectedBlockLightLevels, 0, actualBlockLightLevels, 0, LIGHT_LEVEL_COUNT);
+                final var prior = Arrays.toString(actualBlockLightLevels);
+
+                GenericKernels.updateBlockLightLevels(expectedBlockLightLevels, neighborLightLevels.clone(), mask);
+                blockKernel.update(actualBlockLightLevels, neighborLightLevels.clone(), mask);
+
+                assertArrayEquals(
+                    expectedBlockLightLevels,
+                    actualBlockLightLevels,
+                    () -> describe(caseNumber, "block", mask, neighborLightLevels, prior)
+                );
+            } else {
+                for (var i = 0; i < LIGHT_LEVEL_COUNT; i++) {
+                    expectedSkyLightLevels[i] = zeroPrior ? 0 : random.nextInt(16);
+                }
+                System.arraycopy(expectedSkyLightLevels, 0, actualSkyLightLevels, 0, LIGHT_LEVEL_COUNT);
+                final var prior = Arrays.toString(actualSkyLightLevels);
+
+                GenericKernels.updateSkyLightLevels(expectedSkyLightLevels, neighborLightLevels.clone(), mask);
+                skyKernel.update(actualSkyLightLevels, neighborLightLevels.clone(), mask);
+
+                assertArrayEquals(
+                    expectedSkyLightLevels,
+                    actualSkyLightLevels,
+                    () -> describe(caseNumber, "sky", mask, neighborLightLevels, prior)
+                );
+            }
+        }
+    }
+
+    private static String describe(
+        final int caseNumber,
+        final String lightType,
+        final int opaqueBitMask,
+        final int[] neighborLightLevels,
+        final String prior
+    ) {
+        return "case " + caseNumber + " of seed " + SEED + " (" + lightType + " light)"
+            + ", opaqueBitMask: 0x" + Integer.toHexString(opaqueBitMask)
+            + ", neighbors: " + Arrays.toString(neighborLightLevels)
+            + ", prior: " + prior;
+    }
+
+    private static int nextOpaqueBitMask(final Random random) {
+        return switch (random.nextInt(6)) {
+            case 0 -> 0;
+            case 1 -> ALL_OPAQUE;
+            case 2 -> random.nextInt() & random.nextInt() & ALL_OPAQUE;
+            case 3 -> (random.nextInt() | random.nextInt()) & ALL_OPAQUE;
+            case 4 -> (random.nextInt() | FACE_OPAQUE_BITS) & ALL_OPAQUE;
+            default -> random.nextInt() & ALL_OPAQUE;
+        };
+    }
+
+    private static void fillNeighborLightLevels(final Random random, final int[] neighborLightLevels, final int maxLight) {
+        switch (random.nextInt(4)) {
+            case 0 -> Arrays.fill(neighborLightLevels, random.nextInt(maxLight));
+            case 1 -> {
+                final var a = random.nextInt(maxLight);
+                final var b = random.nextInt(maxLight);
+                for (var i = 0; i < NEIGHBOR_COUNT; i++) {
+                    neighborLightLevels[i] = random.nextBoolean() ? a : b;
+                }
+            }
+            default -> {
+                for (var i = 0; i < NEIGHBOR_COUNT; i++) {
+                    neighborLightLevels[i] = random.nextInt(maxLight);
+                }
+            }
+        }
+        // Production never writes the block itself.
+        neighborLightLevels[SELF] = 0;
+    }
+}
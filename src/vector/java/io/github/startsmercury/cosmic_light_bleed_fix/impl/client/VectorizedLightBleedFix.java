@@ -0,0 +1,199 @@
+package io.github.startsmercury.cosmic_light_bleed_fix.impl.client;
+
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.CENTER_NEIGHBORS;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.CENTER_OPAQUE_BITS;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.CORNER_NEIGHBORS;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.EDGE1_NEIGHBORS;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.EDGE2_NEIGHBORS;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.EDGE_OPAQUE_BITS;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.LIGHT_LEVEL_COUNT;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.compactBlockLight;
+import static io.github.startsmercury.cosmic_light_bleed_fix.impl.client.CosmicLightBleedFix.spreadBlockLight;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementation of the table-driven kernels in
+ * {@link CosmicLightBleedFix}.
+ * <p>
+ * This class is compiled apart from the rest of the mod, as it is the only one
+ * needing the {@code jdk.incubator.vector} module. It is only loaded through
+ * {@link CosmicLightBleedFix#createVectorizedKernel}. Each instance holds its own
+ * scratch lanes and is confined to a single thread.
+ * <p>
+ * The neighborhood is transposed into contiguous lanes with scalar loads rather
+ * than gathered: on JDK 17 several live gathered vectors fail to scalarize and
+ * box on every call, which made the gathering kernels slower than the scalar
+ * ones.
+ */
+public final class VectorizedLightBleedFix implements LightKernel {
+    /**
+     * The integer species used, with a lane count dividing
+     * {@link CosmicLightBleedFix#LIGHT_LEVEL_COUNT}.
+     */
+    private static final VectorSpecies<Integer> INT_SPECIES =
+        LIGHT_LEVEL_COUNT % IntVector.SPECIES_PREFERRED.length() == 0
+            ? IntVector.SPECIES_PREFERRED
+            : IntVector.SPECIES_256;
+
+    /**
+     * The length of the scratch array holding the transposed center, edge, and
+     * corner light levels, followed by the spread block light levels.
+     */
+    private static final int LANE_LIGHT_LEVEL_COUNT = 5 * LIGHT_LEVEL_COUNT;
+
+    private static final int EDGE1_LANES = LIGHT_LEVEL_COUNT;
+
+    private static final int EDGE2_LANES = 2 * LIGHT_LEVEL_COUNT;
+
+    private static final int CORNER_LANES = 3 * LIGHT_LEVEL_COUNT;
+
+    private static final int BLOCK_LANES = 4 * LIGHT_LEVEL_COUNT;
+
+    /**
+     * Scratch lanes holding the transposed neighborhood.
+     */
+    private final int[] laneLightLevels = new int[LANE_LIGHT_LEVEL_COUNT];
+
+    /**
+     * Creates a new vectorized light kernel.
+     */
+    public VectorizedLightBleedFix() {
+    }
+
+    /**
+     * Updates block light level for all vertices. Calculations account for light
+     * possibly being blocked, especially ones at the corner.
+     *
+     * @param blockLightLevels the block light levels to modify
+     * @param neighborLightLevels the block light levels of the neighborhood
+     * @param opaqueBitMask the opaque bit mask identifies positions blocking light
+     * @see CosmicLightBleedFix#updateBlockLightLevels(short[], int[], int)
+     */
+    @Override
+    public void updateBlockLightLevels(
+        final short[] blockLightLevels,
+        final int[] neighborLightLevels,
+        final int opaqueBitMask
+    ) {
+        final var laneLightLevels = this.laneLightLevels;
+        for (var i = 0; i < LIGHT_LEVEL_COUNT; i++) {
+            laneLightLevels[i] = spreadBlockLight(neighborLightLevels[CENTER_NEIGHBORS[i]]);
+            laneLightLevels[EDGE1_LANES + i] = spreadBlockLight(neighborLightLevels[EDGE1_NEIGHBORS[i]]);
+            laneLightLevels[EDGE2_LANES + i] = spreadBlockLight(neighborLightLevels[EDGE2_NEIGHBORS[i]]);
+            laneLightLevels[CORNER_LANES + i] = spreadBlockLight(neighborLightLevels[CORNER_NEIGHBORS[i]]);
+            laneLightLevels[BLOCK_LANES + i] = spreadBlockLight(blockLightLevels[i]);
+        }
+
+        for (var i = 0; i < LIGHT_LEVEL_COUNT; i += INT_SPECIES.length()) {
+            final var light = maxBlockLight(
+                IntVector.fromArray(INT_SPECIES, laneLightLevels, BLOCK_LANES + i),
+                IntVector.fromArray(INT_SPECIES, laneLightLevels, i)
+            );
+            var open = maxBlockLight(
+                maxBlockLight(light, IntVector.fromArray(INT_SPECIES, laneLightLevels, EDGE1_LANES + i)),
+                IntVector.fromArray(INT_SPECIES, laneLightLevels, EDGE2_LANES + i)
+            );
+            open = open.blend(
+                maxBlockLight(open, IntVector.fromArray(INT_SPECIES, laneLightLevels, CORNER_LANES + i)),
+                diaphanousEdge(opaqueBitMask, i)
+            );
+
+            light.blend(open, diaphanousCenter(opaqueBitMask, i)).intoArray(laneLightLevels, BLOCK_LANES + i);
+        }
+
+        for (var i = 0; i < LIGHT_LEVEL_COUNT; i++) {
+            blockLightLevels[i] = (short) compactBlockLight(laneLightLevels[BLOCK_LANES + i]);
+        }
+    }
+
+    /**
+     * Updates sky-light level for all vertices. Calculations account for light
+     * possibly being blocked, especially ones at the corner.
+     *
+     * @param skyLightLevels the sky-light levels to modify
+     * @param neighborLightLevels the sky-light levels of the neighborhood
+     * @param opaqueBitMask the opaque bit mask identifies positions blocking light
+     * @see CosmicLightBleedFix#updateSkyLightLevels(int[], int[], int)
+     */
+    @Override
+    public void updateSkyLightLevels(
+        final int[] skyLightLevels,
+        final int[] neighborLightLevels,
+        final int opaqueBitMask
+    ) {
+        final var laneLightLevels = this.laneLightLevels;
+        transpose(neighborLightLevels, laneLightLevels);
+
+        for (var i = 0; i < LIGHT_LEVEL_COUNT; i += INT_SPECIES.length()) {
+            final var light = IntVector.fromArray(INT_SPECIES, skyLightLevels, i)
+                .max(IntVector.fromArray(INT_SPECIES, laneLightLevels, i));
+            var open = light
+                .max(IntVector.fromArray(INT_SPECIES, laneLightLevels, EDGE1_LANES + i))
+                .max(IntVector.fromArray(INT_SPECIES, laneLightLevels, EDGE2_LANES + i));
+            open = open.blend(
+                open.max(IntVector.fromArray(INT_SPECIES, laneLightLevels, CORNER_LANES + i)),
+                diaphanousEdge(opaqueBitMask, i)
+            );
+
+            light.blend(open, diaphanousCenter(opaqueBitMask, i)).intoArray(skyLightLevels, i);
+        }
+    }
+
+    /**
+     * Copies the center, edge, and corner light levels of every vertex into
+     * consecutive runs of {@link CosmicLightBleedFix#LIGHT_LEVEL_COUNT} lanes.
+     *
+     * @param neighborLightLevels the light levels of the neighborhood
+     * @param laneLightLevels the scratch array to fill
+     */
+    private static void transpose(final int[] neighborLightLevels, final int[] laneLightLevels) {
+        for (var i = 0; i < LIGHT_LEVEL_COUNT; i++) {
+            laneLightLevels[i] = neighborLightLevels[CENTER_NEIGHBORS[i]];
+            laneLightLevels[EDGE1_LANES + i] = neighborLightLevels[EDGE1_NEIGHBORS[i]];
+            laneLightLevels[EDGE2_LANES + i] = neighborLightLevels[EDGE2_NEIGHBORS[i]];
+            laneLightLevels[CORNER_LANES + i] = neighborLightLevels[CORNER_NEIGHBORS[i]];
+        }
+    }
+
+    /**
+     * Returns the lanes where light can pass through the block at the face.
+     *
+     * @param opaqueBitMask the opaque bit mask
+     * @param offset the light level index of the first lane
+     * @return the diaphanous center mask
+     */
+    private static VectorMask<Integer> diaphanousCenter(final int opaqueBitMask, final int offset) {
+        return IntVector.fromArray(INT_SPECIES, CENTER_OPAQUE_BITS, offset)
+            .and(opaqueBitMask)
+            .compare(VectorOperators.EQ, 0);
+    }
+
+    /**
+     * Returns the lanes where light from the corner can pass through either edge.
+     *
+     * @param opaqueBitMask the opaque bit mask
+     * @param offset the light level index of the first lane
+     * @return the diaphanous edge mask
+     */
+    private static VectorMask<Integer> diaphanousEdge(final int opaqueBitMask, final int offset) {
+        final var edgeBits = IntVector.fromArray(INT_SPECIES, EDGE_OPAQUE_BITS, offset);
+        return edgeBits.and(opaqueBitMask).compare(VectorOperators.NE, edgeBits);
+    }
+
+    /**
+     * Lane-wise equivalent of {@link CosmicLightBleedFix#maxSpreadBlockLight}.
+     *
+     * @param a the first spread block light levels
+     * @param b the second spread block light levels
+     * @return the channel-wise maximum spread block light levels
+     */
+    private static IntVector maxBlockLight(final IntVector a, final IntVector b) {
+        final var greaterOrEqual = a.or(0x101010).sub(b).and(0x101010);
+        final var select = greaterOrEqual.sub(greaterOrEqual.lanewise(VectorOperators.LSHR, 4));
+        return b.lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.XOR, b).and(select));
+    }
+}